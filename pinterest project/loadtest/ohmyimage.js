@@ -0,0 +1,161 @@
+// OhMyImage yük testi (k6): ana sayfa akışı, pin sayfası, arama, görsel yükleme ve yorum.
+// Her senaryo sabit bir istek hızıyla çalışır; sonunda uç nokta başına istek/saniye ile p50/p99 gecikme
+// yazdırılır ve karşılaştırma için loadtest-result.json dosyasına kaydedilir.
+//
+// Önce uygulama sentetik veriyle başlatılır (bkz. DatasetGenerator):
+//   mvn spring-boot:run -Dspring-boot.run.profiles=dataset
+// Sonra:
+//   k6 run loadtest/ohmyimage.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e DURATION=5m -e FEED_RATE=100 loadtest/ohmyimage.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DURATION = __ENV.DURATION || '2m';
+const USERS = parseInt(__ENV.USERS || '1000');
+const USERNAME_PREFIX = __ENV.USERNAME_PREFIX || 'synthetic';
+const PASSWORD = __ENV.PASSWORD || 'password';
+const FEED_PAGES = parseInt(__ENV.FEED_PAGES || '20');
+const RESULT_FILE = __ENV.RESULT_FILE || 'loadtest-result.json';
+
+// DatasetGenerator'ın başlıklarda kullandığı kelimeler
+const WORDS = ['manzara', 'tarif', 'dekorasyon', 'moda', 'seyahat', 'bahçe', 'kahve', 'deniz', 'dağ', 'şehir', 'kitap', 'tasarım'];
+
+const IMAGE = open('./sample.png', 'b');
+
+const ENDPOINTS = {
+  feed: 'FEED_RATE',
+  pin: 'PIN_RATE',
+  search: 'SEARCH_RATE',
+  upload: 'UPLOAD_RATE',
+  comment: 'COMMENT_RATE',
+};
+const DEFAULT_RATES = { feed: 50, pin: 50, search: 20, upload: 2, comment: 5 };
+
+function scenario(endpoint) {
+  const rate = parseInt(__ENV[ENDPOINTS[endpoint]] || DEFAULT_RATES[endpoint]);
+  return {
+    executor: 'constant-arrival-rate',
+    exec: endpoint,
+    rate: rate,
+    timeUnit: '1s',
+    duration: DURATION,
+    preAllocatedVUs: Math.max(2, rate),
+    maxVUs: Math.max(10, rate * 4),
+    tags: { endpoint: endpoint },
+  };
+}
+
+export const options = {
+  scenarios: Object.fromEntries(Object.keys(ENDPOINTS).map((endpoint) => [endpoint, scenario(endpoint)])),
+  summaryTrendStats: ['avg', 'med', 'p(99)', 'max', 'count'],
+  // Alt metrikler (uç nokta başına) ancak bir eşik tanımlanınca özete girer
+  thresholds: Object.fromEntries(Object.keys(ENDPOINTS).flatMap((endpoint) => [
+    [`http_req_duration{endpoint:${endpoint}}`, ['p(99)<2000']],
+    [`http_req_failed{endpoint:${endpoint}}`, ['rate<0.01']],
+  ])),
+};
+
+// Akışın ilk sayfalarındaki pin id'leri (pin sayfası ve yorum senaryoları bunlardan seçer)
+export function setup() {
+  const pinIds = new Set();
+  let url = `${BASE_URL}/`;
+  for (let page = 0; page < FEED_PAGES && url; page++) {
+    const res = http.get(url, { tags: { endpoint: 'setup' } });
+    for (const match of res.body.matchAll(/href="\/pins\/(\d+)"/g)) {
+      pinIds.add(match[1]);
+    }
+    const next = res.body.match(/data-next="([^"]+)"/);
+    url = next ? `${BASE_URL}${next[1].replace(/&amp;/g, '&')}` : null;
+  }
+  if (pinIds.size === 0) {
+    throw new Error(`No pins found at ${BASE_URL}; start the application with the dataset profile`);
+  }
+  return { pinIds: Array.from(pinIds) };
+}
+
+function pick(items) {
+  return items[Math.floor(Math.random() * items.length)];
+}
+
+// Her VU rastgele bir sentetik kullanıcıyla bir kez giriş yapar; oturum çerezi VU'nun çerez kavanozunda kalır
+let session = null;
+
+function login() {
+  if (session) {
+    return session;
+  }
+  const username = `${USERNAME_PREFIX}${1 + Math.floor(Math.random() * USERS)}`;
+  const res = http.post(`${BASE_URL}/login`, { username: username, password: PASSWORD }, { tags: { endpoint: 'login' } });
+  check(res, { 'login succeeded': (r) => !r.url.includes('/login') });
+  const boards = http.get(`${BASE_URL}/boards`, { tags: { endpoint: 'login' } });
+  const boardIds = Array.from(boards.body.matchAll(/href="\/boards\/(\d+)"/g), (match) => match[1]);
+  session = { username: username, boardIds: boardIds };
+  return session;
+}
+
+export function feed() {
+  const res = http.get(`${BASE_URL}/`);
+  check(res, { 'feed 200': (r) => r.status === 200 });
+}
+
+export function pin(data) {
+  const res = http.get(`${BASE_URL}/pins/${pick(data.pinIds)}`);
+  check(res, { 'pin 200': (r) => r.status === 200 });
+}
+
+export function search() {
+  const res = http.get(`${BASE_URL}/search?q=${encodeURIComponent(pick(WORDS))}`);
+  check(res, { 'search 200': (r) => r.status === 200 });
+}
+
+export function upload() {
+  const user = login();
+  if (user.boardIds.length === 0) {
+    return;
+  }
+  const res = http.post(`${BASE_URL}/pins/create`, {
+    title: `${pick(WORDS)} yük testi`,
+    description: 'Yük testi ile yüklendi',
+    boardId: pick(user.boardIds),
+    image: http.file(IMAGE, 'sample.png', 'image/png'),
+  }, { redirects: 0 });
+  // Başarılı yükleme panoya yönlendirir; form tekrar gösterilirse (200) hata vardır
+  check(res, { 'upload redirected': (r) => r.status === 302 });
+}
+
+export function comment(data) {
+  login();
+  const res = http.post(`${BASE_URL}/pins/${pick(data.pinIds)}/comments`,
+    { text: 'Yük testi yorumu' }, { redirects: 0 });
+  check(res, { 'comment redirected': (r) => r.status === 302 });
+}
+
+export function handleSummary(data) {
+  const seconds = data.state.testRunDurationMs / 1000;
+  const lines = ['', 'endpoint      req/s      p50 ms     p99 ms     failed'];
+  const endpoints = {};
+  for (const endpoint of Object.keys(ENDPOINTS)) {
+    const duration = data.metrics[`http_req_duration{endpoint:${endpoint}}`];
+    const failed = data.metrics[`http_req_failed{endpoint:${endpoint}}`];
+    if (!duration) {
+      continue;
+    }
+    const values = duration.values;
+    endpoints[endpoint] = {
+      requestsPerSecond: values.count / seconds,
+      p50: values.med,
+      p99: values['p(99)'],
+      failedRate: failed ? failed.values.rate : 0,
+    };
+    const row = endpoints[endpoint];
+    lines.push(`${endpoint.padEnd(10)}${row.requestsPerSecond.toFixed(1).padStart(9)}`
+      + `${row.p50.toFixed(1).padStart(12)}${row.p99.toFixed(1).padStart(11)}`
+      + `${(row.failedRate * 100).toFixed(2).padStart(10)}%`);
+  }
+  lines.push('');
+  return {
+    stdout: lines.join('\n') + '\n',
+    [RESULT_FILE]: JSON.stringify({ baseUrl: BASE_URL, durationSeconds: seconds, endpoints: endpoints, metrics: data.metrics }, null, 2),
+  };
+}
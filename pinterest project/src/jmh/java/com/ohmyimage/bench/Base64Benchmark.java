@@ -0,0 +1,76 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.util.Base64Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Görseli sayfaya Base64 gömmenin maliyeti, aynı byte'ları ham olarak bir akışa yazmakla karşılaştırılır
+// (/pins/{id}/image yanıtı gibi)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+    @Param({"16384", "262144", "4194304"})
+    private int size;
+
+    private byte[] image;
+
+    @Setup
+    public void createImage() {
+        image = new byte[size];
+        new Random(42).nextBytes(image);
+    }
+
+    @Benchmark
+    public String encodeBase64() {
+        return Base64Util.encodeBase64(image);
+    }
+
+    @Benchmark
+    public void copyBinaryStream(Blackhole blackhole) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(image)) {
+            in.transferTo(new BlackholeOutputStream(blackhole));
+        }
+    }
+
+    // Yazılan byte'ları tüketen (JIT'in kodu atmasını engelleyen) çıkış akışı
+    static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            blackhole.consume(buffer);
+            blackhole.consume(length);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.KeysetPage;
+import com.ohmyimage.dto.PinCard;
+import com.ohmyimage.util.Base64Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Ana sayfa modelinin hazırlanması: eskiden her pin için görsel Base64'e çevrilip listeye konuyordu
+// (MainController.PinWithBase64), bugün sorgu satırlarından sadece pin kartları oluşturuluyor
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedBenchmark {
+
+    private static final int IMAGE_SIZE = 32 * 1024;
+
+    @Param({"100", "1000", "10000"})
+    private int pins;
+
+    private List<Object[]> rows;
+    private byte[] image;
+
+    // Feed sorgusunun döndürdüğü sütunlar
+    @Setup
+    public void createRows() {
+        Random random = new Random(42);
+        image = new byte[IMAGE_SIZE];
+        random.nextBytes(image);
+        LocalDateTime now = LocalDateTime.now();
+        rows = new ArrayList<>(pins);
+        for (int i = 0; i < pins; i++) {
+            rows.add(new Object[]{(long) i, "Pin " + i, "%064x".formatted(i), now.minusMinutes(i),
+                    (long) random.nextInt(1000), "user" + random.nextInt(1000), random.nextInt(20)});
+        }
+    }
+
+    @Benchmark
+    public List<String> base64PerPin() {
+        List<String> encoded = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            encoded.add(Base64Util.encodeBase64(image));
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public KeysetPage<PinCard> pinCards() {
+        List<PinCard> cards = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            cards.add(new PinCard((Long) row[0], (String) row[1], (String) row[2], (LocalDateTime) row[3],
+                    (Long) row[4], (String) row[5], (Integer) row[6]));
+        }
+        PinCard last = cards.get(cards.size() - 1);
+        return new KeysetPage<>(cards, new KeysetCursor(last.createdAt(), last.id()));
+    }
+}
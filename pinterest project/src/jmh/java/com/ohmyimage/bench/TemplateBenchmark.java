@@ -0,0 +1,155 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.dto.CommentView;
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.PinCard;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.User;
+import com.ohmyimage.service.CommentService;
+import com.ohmyimage.service.PinService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.extras.springsecurity6.dialect.SpringSecurityDialect;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// index.html ve pins/view.html'in sabit bir modelle render süresi (veritabanı ve controller olmadan).
+// Şablonlar uygulamadaki gibi classpath'ten okunur ve önbelleklenir; sec:authorize için bir güvenlik bağlamı kurulur.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({"false", "true"})
+    private boolean signedIn;
+
+    private SpringTemplateEngine templateEngine;
+    private StaticWebApplicationContext applicationContext;
+    private JakartaServletWebApplication webApplication;
+    private MockServletContext servletContext;
+    private Map<String, Object> indexModel;
+    private Map<String, Object> pinModel;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.addDialect(new SpringSecurityDialect());
+
+        // sec:authorize ifadeleri web uygulama context'indeki expression handler ile değerlendirilir
+        servletContext = new MockServletContext();
+        applicationContext = new StaticWebApplicationContext();
+        applicationContext.setServletContext(servletContext);
+        applicationContext.registerSingleton("webSecurityExpressionHandler", DefaultWebSecurityExpressionHandler.class);
+        applicationContext.refresh();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+        webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+
+        User owner = User.builder().id(1L).username("user1").email("user1@example.com").build();
+        User currentUser = signedIn ? owner : null;
+        Authentication authentication = signedIn
+                ? UsernamePasswordAuthenticationToken.authenticated("user1", null, AuthorityUtils.createAuthorityList("ROLE_USER"))
+                : new AnonymousAuthenticationToken("bench", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 12, 0);
+        List<PinCard> pins = new ArrayList<>();
+        for (int i = 0; i < PinService.FEED_PAGE_SIZE; i++) {
+            pins.add(new PinCard((long) i + 1, "Pin " + i, "%064x".formatted(i), now.minusMinutes(i),
+                    (long) (i % 5) + 1, "user" + ((i % 5) + 1), i % 7));
+        }
+        PinCard last = pins.get(pins.size() - 1);
+        indexModel = new HashMap<>();
+        indexModel.put("pins", pins);
+        indexModel.put("nextCursor", new KeysetCursor(last.createdAt(), last.id()).encode());
+        indexModel.put("currentUser", currentUser);
+        indexModel.put("isAdmin", false);
+
+        Pin pin = Pin.builder()
+                .id(1L)
+                .title("Deniz kenarında gün batımı")
+                .description("Akşamüstü sahilden çekilmiş bir manzara")
+                .createdAt(now)
+                .imageContentType("image/jpeg")
+                .imageSha256("%064x".formatted(1))
+                .imageSize(512_000L)
+                .owner(owner)
+                .build();
+        List<CommentView> comments = new ArrayList<>();
+        for (int i = 0; i < CommentService.PAGE_SIZE; i++) {
+            comments.add(new CommentView((long) i + 1, "Yorum " + i, now.minusSeconds(i),
+                    (long) (i % 5) + 1, "user" + ((i % 5) + 1)));
+        }
+        CommentView lastComment = comments.get(comments.size() - 1);
+        pinModel = new HashMap<>();
+        pinModel.put("pin", pin);
+        pinModel.put("pinId", pin.getId());
+        pinModel.put("comments", comments);
+        pinModel.put("nextCursor", new KeysetCursor(lastComment.createdAt(), lastComment.id()).encode());
+        pinModel.put("currentUser", currentUser);
+        pinModel.put("isOwner", signedIn);
+        pinModel.put("isAdmin", false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public String renderIndex() {
+        return templateEngine.process("index", context("/", indexModel));
+    }
+
+    @Benchmark
+    public String renderPinView() {
+        return templateEngine.process("pins/view", context("/pins/1", pinModel));
+    }
+
+    private WebContext context(String uri, Map<String, Object> model) {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", uri);
+        return new WebContext(webApplication.buildExchange(request, new MockHttpServletResponse()), Locale.forLanguageTag("tr"), model);
+    }
+}
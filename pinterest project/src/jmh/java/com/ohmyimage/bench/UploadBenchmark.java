@@ -0,0 +1,67 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.storage.StagedUpload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Yükleme yolu: eski convertToBytes gibi tüm dosyayı belleğe okumak ile bugünkü StagedUpload
+// (özet hesaplayarak diske akıtma) farklı yükleme boyutlarında karşılaştırılır
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadBenchmark {
+
+    @Param({"262144", "4194304", "16777216"})
+    private int size;
+
+    private byte[] upload;
+    private Path staging;
+
+    @Setup
+    public void createUpload() throws IOException {
+        upload = new byte[size];
+        new Random(42).nextBytes(upload);
+        staging = Files.createTempDirectory("upload-bench");
+    }
+
+    @TearDown
+    public void removeStaging() throws IOException {
+        Files.deleteIfExists(staging);
+    }
+
+    @Benchmark
+    public byte[] readIntoMemory() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(upload)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public String stageToDisk() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(upload);
+             StagedUpload staged = StagedUpload.stage(in, staging, Long.MAX_VALUE)) {
+            return staged.sha256();
+        }
+    }
+}
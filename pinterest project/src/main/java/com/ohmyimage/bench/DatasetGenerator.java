@@ -0,0 +1,272 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Comment;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.Role;
+import com.ohmyimage.model.User;
+import com.ohmyimage.repository.RoleRepository;
+import com.ohmyimage.repository.UserRepository;
+import com.ohmyimage.service.CounterService;
+import com.ohmyimage.service.ImageService;
+import com.ohmyimage.storage.ImageInfo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Kapasite ölçümü için üretim hacminde sentetik veri: kullanıcılar, panolar, yapay görselli pinler ve yorumlar.
+// Pinler panolara, yorumlar pinlere Zipf dağılımıyla (az sayıda çok popüler kayıt) dağıtılır.
+// Aynı tohumla her seferinde aynı veri üretilir; veri zaten varsa (ilk sentetik kullanıcı mevcutsa) atlanır:
+//   java -jar ohmyimage.jar --spring.profiles.active=dataset [--ohmyimage.dataset.users=1000 ...]
+// Sentetik kullanıcıların şifresi ohmyimage.dataset.password'dur (yük testleri bununla giriş yapar).
+// initData'dan sonra çalışması gerektiği için CommandLineRunner yerine hazır olayında, arama indeksi
+// kurulmadan önce çalışır; böylece üretilen veri indekse de girer.
+@Component
+@Profile("dataset")
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    // Başlıklarda kullanılan kelimeler; yük testindeki arama sorguları da bunlardan seçilir
+    private static final String[] WORDS = {"manzara", "tarif", "dekorasyon", "moda", "seyahat",
+            "bahçe", "kahve", "deniz", "dağ", "şehir", "kitap", "tasarım"};
+
+    @PersistenceContext private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private ImageService imageService;
+    @Autowired private CounterService counterService;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    @Value("${ohmyimage.dataset.users:1000}")
+    private int users;
+
+    @Value("${ohmyimage.dataset.boards-per-user:5}")
+    private int boardsPerUser;
+
+    @Value("${ohmyimage.dataset.pins:20000}")
+    private int pins;
+
+    @Value("${ohmyimage.dataset.comments:100000}")
+    private int comments;
+
+    // Farklı görsel sayısı ve her birinin yaklaşık boyutu (byte)
+    @Value("${ohmyimage.dataset.images:100}")
+    private int images;
+
+    @Value("${ohmyimage.dataset.image-size:200000}")
+    private int imageSize;
+
+    // Zipf üssü: büyüdükçe pinler ve yorumlar daha az kayıtta toplanır
+    @Value("${ohmyimage.dataset.skew:1.1}")
+    private double skew;
+
+    @Value("${ohmyimage.dataset.days:90}")
+    private int days;
+
+    @Value("${ohmyimage.dataset.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ohmyimage.dataset.username-prefix:synthetic}")
+    private String usernamePrefix;
+
+    @Value("${ohmyimage.dataset.password:password}")
+    private String password;
+
+    @Value("${ohmyimage.dataset.seed:42}")
+    private long seed;
+
+    private record SyntheticImage(ImageInfo info, int width, int height) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void generate() throws IOException {
+        if (userRepository.existsByUsername(usernamePrefix + 1)) {
+            logger.info("Synthetic dataset already present ({}1 exists), skipping generation", usernamePrefix);
+            return;
+        }
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<SyntheticImage> syntheticImages = storeImages(random);
+        long[] userIds = createUsers();
+        long[] boardIds = new long[users * boardsPerUser];
+        long[] boardOwners = new long[boardIds.length];
+        createBoards(userIds, boardIds, boardOwners);
+        long[] pinIds = createPins(random, now, syntheticImages, boardIds, boardOwners);
+        createComments(random, now, userIds, pinIds);
+        counterService.reconcile();
+
+        logger.info("Synthetic dataset generated in {} s: {} users, {} boards, {} pins ({} images of ~{} bytes), {} comments",
+                (System.nanoTime() - start) / 1_000_000_000, users, boardIds.length, pins, images, imageSize, comments);
+    }
+
+    // Gürültü görseller sıkışmaz, dosya boyutu yaklaşık piksel sayısı x 3 olur
+    private List<SyntheticImage> storeImages(Random random) throws IOException {
+        int side = Math.max(16, (int) Math.sqrt(imageSize / 3.0));
+        List<SyntheticImage> stored = new ArrayList<>();
+        for (int i = 0; i < images; i++) {
+            int width = side + random.nextInt(side / 4 + 1);
+            int height = side * side / width;
+            BufferedImage picture = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    picture.setRGB(x, y, random.nextInt(0x1000000));
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(imageSize + 1024);
+            ImageIO.write(picture, "png", out);
+            try (InputStream in = new ByteArrayInputStream(out.toByteArray())) {
+                stored.add(new SyntheticImage(imageService.store(in), width, height));
+            }
+        }
+        return stored;
+    }
+
+    private long[] createUsers() {
+        Role userRole = roleRepository.findByName("ROLE_USER")
+                .orElseThrow(() -> new IllegalStateException("ROLE_USER not found; start once without the dataset profile"));
+        String passwordHash = passwordEncoder.encode(password);
+        long[] ids = new long[users];
+        inBatches(users, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                User user = User.builder()
+                        .username(usernamePrefix + (i + 1))
+                        .email(usernamePrefix + (i + 1) + "@example.com")
+                        .password(passwordHash)
+                        .roles(Set.of(userRole))
+                        .build();
+                entityManager.persist(user);
+                ids[i] = user.getId();
+            }
+        });
+        return ids;
+    }
+
+    private void createBoards(long[] userIds, long[] boardIds, long[] boardOwners) {
+        inBatches(boardIds.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long ownerId = userIds[i / boardsPerUser];
+                Board board = Board.builder()
+                        .name(WORDS[i % WORDS.length] + " panosu " + (i % boardsPerUser + 1))
+                        .owner(entityManager.getReference(User.class, ownerId))
+                        .build();
+                entityManager.persist(board);
+                boardIds[i] = board.getId();
+                boardOwners[i] = ownerId;
+            }
+        });
+    }
+
+    private long[] createPins(Random random, LocalDateTime now, List<SyntheticImage> syntheticImages,
+                              long[] boardIds, long[] boardOwners) {
+        ZipfSampler boardSampler = new ZipfSampler(boardIds.length, skew, random);
+        long[] ids = new long[pins];
+        inBatches(pins, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int board = boardSampler.next();
+                SyntheticImage image = syntheticImages.get(random.nextInt(syntheticImages.size()));
+                LocalDateTime createdAt = now.minusSeconds(random.nextLong(days * 86_400L));
+                Pin pin = Pin.builder()
+                        .title(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + (i + 1))
+                        .description("Sentetik pin " + (i + 1))
+                        .createdAt(createdAt)
+                        .imageContentType(image.info().contentType())
+                        .imageSha256(image.info().key())
+                        .imageSize(image.info().size())
+                        .imageWidth(image.width())
+                        .imageHeight(image.height())
+                        .imageUpdatedAt(createdAt)
+                        .owner(entityManager.getReference(User.class, boardOwners[board]))
+                        .board(entityManager.getReference(Board.class, boardIds[board]))
+                        .build();
+                entityManager.persist(pin);
+                ids[i] = pin.getId();
+            }
+        });
+        return ids;
+    }
+
+    private void createComments(Random random, LocalDateTime now, long[] userIds, long[] pinIds) {
+        if (pinIds.length == 0) {
+            return;
+        }
+        ZipfSampler pinSampler = new ZipfSampler(pinIds.length, skew, random);
+        inBatches(comments, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                entityManager.persist(Comment.builder()
+                        .text("Sentetik yorum " + (i + 1))
+                        .createdAt(now.minusSeconds(random.nextLong(days * 86_400L)))
+                        .user(entityManager.getReference(User.class, userIds[random.nextInt(userIds.length)]))
+                        .pin(entityManager.getReference(Pin.class, pinIds[pinSampler.next()]))
+                        .build());
+            }
+        });
+    }
+
+    private interface BatchWork {
+        void run(int from, int to);
+    }
+
+    // Her grup kendi transaction'ında; persistence context grup sonunda boşaltılır
+    private void inBatches(int count, BatchWork work) {
+        for (int from = 0; from < count; from += batchSize) {
+            int batchStart = from;
+            int batchEnd = Math.min(from + batchSize, count);
+            transactionTemplate.executeWithoutResult(status -> {
+                work.run(batchStart, batchEnd);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    // 0..n-1 arasında Zipf dağılımlı indeks üretir (0 en popüler)
+    static final class ZipfSampler {
+        private final double[] cumulative;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.cumulative = new double[n];
+            this.random = random;
+            double sum = 0;
+            for (int rank = 1; rank <= n; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+        }
+
+        int next() {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
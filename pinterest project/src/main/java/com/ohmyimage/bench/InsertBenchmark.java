@@ -0,0 +1,68 @@
+package com.ohmyimage.bench;
+
+import com.ohmyimage.model.Board;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// JDBC batch insert'in etkisini ölçer: aynı sayıda pano önce batch'siz (batch size 1), sonra
+// yapılandırılmış batch boyutuyla eklenir ve saniyedeki insert sayıları loglanır.
+// Her tur kendi transaction'ında çalışır ve geri alınır, veritabanında kayıt kalmaz:
+//   java -jar ohmyimage.jar --ohmyimage.bench.inserts=true [--ohmyimage.bench.insert-rows=5000]
+@Component
+@ConditionalOnProperty(name = "ohmyimage.bench.inserts", havingValue = "true")
+public class InsertBenchmark implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBenchmark.class);
+
+    @PersistenceContext private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${ohmyimage.bench.insert-rows:5000}")
+    private int rows;
+
+    @Value("${ohmyimage.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) {
+        // İlk tur JIT ve bağlantı havuzunu ısıtır, sonucu dikkate alınmaz
+        measure(batchSize, Math.min(rows, 500));
+
+        long unbatched = measure(1, rows);
+        long batched = measure(batchSize, rows);
+        logger.info("Insert benchmark ({} rows): batch size 1 -> {} rows/s, batch size {} -> {} rows/s ({}x)",
+                rows, unbatched, batchSize, batched, unbatched > 0 ? String.format("%.1f", (double) batched / unbatched) : "-");
+    }
+
+    // Satır/saniye döndürür
+    private long measure(int jdbcBatchSize, int count) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(jdbcBatchSize);
+            for (int i = 0; i < count; i++) {
+                entityManager.persist(Board.builder().name("bench-" + i).build());
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            status.setRollbackOnly();
+        });
+        long elapsedNanos = System.nanoTime() - start;
+        return elapsedNanos > 0 ? count * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+}
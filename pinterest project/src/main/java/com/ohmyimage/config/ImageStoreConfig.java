@@ -0,0 +1,34 @@
+package com.ohmyimage.config;
+
+import com.ohmyimage.repository.PinImageRepository;
+import com.ohmyimage.storage.DatabaseImageStore;
+import com.ohmyimage.storage.FileSystemImageStore;
+import com.ohmyimage.storage.ImageStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Görsellerin nerede saklanacağı ohmyimage.images.store ile seçilir:
+//  database   -> pin_image tablosu (varsayılan)
+//  filesystem -> ohmyimage.images.dir altındaki dizin ağacı; diskte olmayanlar veritabanından okunup diske taşınır
+@Configuration
+public class ImageStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "ohmyimage.images.store", havingValue = "database", matchIfMissing = true)
+    public ImageStore databaseImageStore(PinImageRepository pinImageRepository, JdbcTemplate jdbcTemplate) {
+        return new DatabaseImageStore(pinImageRepository, jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ohmyimage.images.store", havingValue = "filesystem")
+    public ImageStore fileSystemImageStore(PinImageRepository pinImageRepository, JdbcTemplate jdbcTemplate,
+                                           @Value("${ohmyimage.images.dir:data/images}") String dir) throws IOException {
+        return new FileSystemImageStore(Path.of(dir), new DatabaseImageStore(pinImageRepository, jdbcTemplate));
+    }
+}
@@ -0,0 +1,25 @@
+package com.ohmyimage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+// Hibernate JDBC batching: aynı tablodaki insert/update'ler tek seferde gönderilir.
+// Entity id'leri sequence ile üretildiği için (IDENTITY değil) insert'ler de batch'lenebilir.
+// PostgreSQL sürücüsünde JDBC URL'ine reWriteBatchedInserts=true eklemek batch'i tek çok satırlı insert'e çevirir.
+@Configuration
+public class JpaBatchConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${ohmyimage.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+        hibernateProperties.putIfAbsent("hibernate.order_updates", true);
+        hibernateProperties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+    }
+}
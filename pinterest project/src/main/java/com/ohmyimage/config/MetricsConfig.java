@@ -0,0 +1,46 @@
+package com.ohmyimage.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+// Actuator / Prometheus metrikleri. Varsayılanlar metrics.properties'te; application.properties'teki
+// management.* ayarları bunları ezer. /actuator/health herkese açık; /actuator/prometheus dahil diğer uç noktalar
+// admin ister, metrik toplayıcı HTTP Basic ile girer (bkz. SecurityConfig.actuatorFilterChain).
+// Etiketler düşük kardinaliteli tutulur: URL şablonu, controller metodu, kategori gibi sınırlı değerler;
+// id, kullanıcı adı, arama metni gibi değerler etiket olmaz.
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    // http.server.requests metriğine controller metodunu ekler, ör. handler="PinController.pinImage"
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", handlerName(context.getCarrier())));
+            }
+        };
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        if (handler instanceof ResourceHttpRequestHandler) {
+            return "static";
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,50 @@
+package com.ohmyimage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+// Hibernate ikinci seviye önbellek ve sorgu önbelleği: Ehcache (JCache) süreç içinde çalışır.
+// Bölgeler ve boyut sınırları ehcache.xml'de; @Cache ile işaretli entity'ler (Role, User, Board) ve
+// "org.hibernate.cacheable" ipucu verilen sorgular önbelleğe alınır. İsabet/ıska sayıları Hibernate
+// istatistiklerinden (SessionFactory.getStatistics) okunur.
+@Configuration
+public class SecondLevelCacheConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${ohmyimage.jpa.second-level-cache:true}")
+    private boolean enabled;
+
+    @Value("${ohmyimage.jpa.statistics:true}")
+    private boolean statistics;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent("hibernate.generate_statistics", statistics);
+        if (!enabled) {
+            hibernateProperties.putIfAbsent("hibernate.cache.use_second_level_cache", false);
+            hibernateProperties.putIfAbsent("hibernate.cache.use_query_cache", false);
+            return;
+        }
+        hibernateProperties.putIfAbsent("hibernate.cache.use_second_level_cache", true);
+        hibernateProperties.putIfAbsent("hibernate.cache.use_query_cache", true);
+        hibernateProperties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+        hibernateProperties.putIfAbsent("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        hibernateProperties.putIfAbsent("hibernate.javax.cache.uri", configUri());
+        // Tanımlanmamış bölge bir yapılandırma hatasıdır; sınırsız varsayılan bölge oluşturulmaz
+        hibernateProperties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "fail");
+    }
+
+    // Jar içinde de çalışsın diye tam URI (ör. jar:file:...!/BOOT-INF/classes!/ehcache.xml)
+    private static String configUri() {
+        try {
+            return new ClassPathResource("ehcache.xml").getURL().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("ehcache.xml not found on classpath", e);
+        }
+    }
+}
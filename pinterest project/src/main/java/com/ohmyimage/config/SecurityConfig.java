@@ -5,6 +5,8 @@ import com.ohmyimage.model.Board;
 import com.ohmyimage.model.Role;
 import com.ohmyimage.model.User;
 import com.ohmyimage.repository.RoleRepository;
+import com.ohmyimage.security.UserDetailsCache;
+import com.ohmyimage.security.UserPrincipal;
 import com.ohmyimage.service.BoardService;
 import com.ohmyimage.service.UserService;
 import org.slf4j.Logger;
@@ -12,11 +14,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
@@ -25,10 +31,14 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration // Bu sınıfın bir konfigurasyon sınıfı olduğunu belirtir
 @EnableMethodSecurity // Metot bazlı güvenlik (örneğin @PreAuthorize) aktif edilir
 public class SecurityConfig {
@@ -44,16 +54,22 @@ public class SecurityConfig {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Bean
     public UserDetailsService userDetailsService() {
         // Kullanıcıyı username'e göre bulur. Spring Security'nin ihtiyaç duyduğu servis.
+        // Entity yerine değişmez bir kopya döner; kopya UserDetailsCache'te tutulur.
         return username -> {
             logger.debug("UserDetailsService called for username: {}", username);
+            long cacheGeneration = userDetailsCache.generation(); // Okumadan önce
             User user = userService.findByUsername(username);
             if (user == null) {
                 logger.warn("UserDetailsService could not find user by username: {}", username);
+                throw new UsernameNotFoundException(username);
             }
-            return user;
+            return UserPrincipal.of(user, cacheGeneration);
         };
     }
 
@@ -69,6 +85,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider auth = new DaoAuthenticationProvider();
         auth.setUserDetailsService(userDetailsService());
         auth.setPasswordEncoder(passwordEncoder());
+        auth.setUserCache(userDetailsCache); // Tekrarlanan girişler veritabanına gitmez
         return auth;
     }
 
@@ -157,6 +174,24 @@ public class SecurityConfig {
         };
     }
 
+    // Actuator uç noktaları ayrı zincirde: sağlık kontrolü herkese açık, metrikler (Prometheus dahil) sadece admin.
+    // Metrik toplayıcı form girişi yapamadığı için admin hesabıyla HTTP Basic gönderir; bu istekler oturum açmaz
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(antMatcher("/actuator/**"))
+                .authenticationProvider(authenticationProvider())
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(paths("/actuator/health", "/actuator/health/**")).permitAll()
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         // Spring Security'nin asıl yapılandırması burada yapılır
@@ -165,20 +200,22 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable()) // CSRF kapatılıyor (güvenlik durumuna göre açılabilir)
                 .authorizeHttpRequests(auth -> auth
                         // Herkesin erişebileceği sayfalar
-                        .requestMatchers(
-                                "/", "/pins/search", "/pins/{id:[0-9]+}",
+                        .requestMatchers(paths(
+                                "/", "/feed", "/pins/search", "/pins/{id:[0-9]+}", "/pins/{id:[0-9]+}/image",
                                 "/css/**", "/js/**", "/images/**",
                                 "/register", "/login",
                                 "/forgot-password", "/reset-password**"
-                        ).permitAll()
+                        )).permitAll()
+                        // Yorumlar herkes tarafından okunabilir (yorum yazmak giriş gerektirir)
+                        .requestMatchers(antMatcher(HttpMethod.GET, "/pins/{id:[0-9]+}/comments")).permitAll()
                         // Arama sayfaları herkes için açık
-                        .requestMatchers("/search", "/search/**").permitAll()
-                        // Sadece admin erişebilir
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers(paths("/search", "/search/**")).permitAll()
+                        // Sadece admin erişebilir (actuator için bkz. actuatorFilterChain)
+                        .requestMatchers(paths("/admin/**")).hasRole("ADMIN")
                         // Giriş yapmış kullanıcılar erişebilir
-                        .requestMatchers("/pins/create", "/pins/*/edit", "/pins/*/delete", "/pins/*/comments").authenticated()
-                        .requestMatchers("/boards", "/boards/create", "/boards/*/**").authenticated()
-                        .requestMatchers("/profile", "/user/boards").authenticated()
+                        .requestMatchers(paths("/pins/create", "/pins/*/edit", "/pins/*/delete", "/pins/*/comments")).authenticated()
+                        .requestMatchers(paths("/boards", "/boards/create", "/boards/*/**")).authenticated()
+                        .requestMatchers(paths("/profile", "/user/boards")).authenticated()
                         // Diğer tüm istekler de giriş gerektirir
                         .anyRequest().authenticated()
                 )
@@ -201,4 +238,10 @@ public class SecurityConfig {
 
         return http.build(); // Konfigürasyon tamamlandı
     }
+
+    // İçe aktarma için ikinci bir servlet kayıtlı olduğundan (bkz. WebConfig) desenler servlet'ten bağımsız
+    // Ant eşleyicileriyle verilir; String desenler birden fazla servlet varken başlangıçta hata verir
+    private static RequestMatcher[] paths(String... patterns) {
+        return Arrays.stream(patterns).map(AntPathRequestMatcher::antMatcher).toArray(RequestMatcher[]::new);
+    }
 }
\ No newline at end of file
@@ -1,15 +1,59 @@
 package com.ohmyimage.config;
 
+import com.ohmyimage.controller.PinImportController;
+import com.ohmyimage.security.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    // Büyük ZIP arşivleri sadece toplu içe aktarma yolunda kabul edilir; eşik üstü yüklemeler bellekte değil diskte tutulur
+    @Value("${ohmyimage.import.max-archive-size:2GB}")
+    private DataSize maxArchiveSize;
+
+    @Value("${ohmyimage.import.file-size-threshold:1MB}")
+    private DataSize fileSizeThreshold;
 
     @Bean
     public MultipartResolver multipartResolver() {
         return new StandardServletMultipartResolver();
     }
-}
\ No newline at end of file
+
+    // Multipart sınırları servlet başına uygulanır: diğer tüm yüklemeler ana DispatcherServlet'te
+    // spring.servlet.multipart.* sınırlarında kalır, /pins/import aynı context'i kullanan ayrı bir servlet'ten geçer
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> pinImportServlet(WebApplicationContext context) {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(maxArchiveSize);
+        factory.setMaxRequestSize(maxArchiveSize);
+        factory.setFileSizeThreshold(fileSizeThreshold);
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), PinImportController.PATH);
+        registration.setName("pinImportServlet");
+        registration.setMultipartConfig(factory.createMultipartConfig());
+        return registration;
+    }
+
+    // Controller'larda @CurrentUser User parametresi
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
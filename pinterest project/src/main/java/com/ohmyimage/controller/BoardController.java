@@ -1,27 +1,24 @@
 package com.ohmyimage.controller;
 
 import com.ohmyimage.dto.BoardDto;
+import com.ohmyimage.dto.BoardSummary;
+import com.ohmyimage.dto.PinCard;
 import com.ohmyimage.model.Board;
-import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.User;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.CurrentUser;
 import com.ohmyimage.service.BoardService;
 import com.ohmyimage.service.PinService;
-import com.ohmyimage.service.UserService;
-import com.ohmyimage.util.Base64Util;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Controller // Bu sınıf, gelen HTTP isteklerini karşılayan bir Controller'dır
 @RequestMapping("/boards") // Bu controller altındaki tüm endpointler /boards ile başlar
@@ -30,52 +27,21 @@ public class BoardController {
     @Autowired
     private BoardService boardService;
 
-    @Autowired
-    private UserService userService;
-
     @Autowired
     private PinService pinService;
 
-    // Authentication ve Principal objelerinden kullanıcıyı çekmek için kullanılan yardımcı metot
-    private User getUserFromAuthentication(Principal principal, Authentication authentication) {
-        if (principal == null || authentication == null) return null;
-
-        Object p = authentication.getPrincipal(); // Kullanıcı bilgisi (OAuth2User ya da User olabilir)
-        String id;
-        User u = null;
-
-        // Eğer kullanıcı OAuth2 ile giriş yaptıysa
-        if (p instanceof OAuth2User) {
-            id = ((OAuth2User) p).getAttribute("email");
-            u = userService.findByEmail(id);
-        }
-        // Eğer klasik User objesiyle giriş yaptıysa
-        else if (p instanceof User) {
-            id = ((User) p).getUsername();
-            u = userService.findByUsername(id);
-        }
-        // Diğer durumlar (örneğin test, custom auth vs.)
-        else {
-            id = principal.getName();
-            u = userService.findByUsername(id);
-            if (u == null) u = userService.findByEmail(id);
-        }
-        return u;
-    }
-
     // Kullanıcının tüm panolarını gösterir
     @GetMapping
-    public String userBoards(Principal principal, Authentication auth, Model model) {
-        User user = getUserFromAuthentication(principal, auth);
+    public String userBoards(@CurrentUser AuthenticatedUser user, Model model) {
         if (user == null) return "redirect:/login"; // Eğer kullanıcı yoksa login sayfasına yönlendir
-        model.addAttribute("boards", boardService.findByOwner(user)); // Kullanıcıya ait panolar
+        model.addAttribute("boards", boardService.findByOwner(user.id())); // Kullanıcıya ait panolar
         return "user/boards";
     }
 
     // Yeni pano oluşturma formunu gösterir
     @GetMapping("/create")
-    public String createForm(Principal principal, Authentication auth, Model model) {
-        if (getUserFromAuthentication(principal, auth) == null) return "redirect:/login";
+    public String createForm(@CurrentUser AuthenticatedUser user, Model model) {
+        if (user == null) return "redirect:/login";
         model.addAttribute("boardDto", new BoardDto()); // Boş bir DTO ile formu başlat
         return "boards/create";
     }
@@ -83,8 +49,7 @@ public class BoardController {
     // Pano oluşturma işlemini yapar
     @PostMapping("/create")
     public String create(@ModelAttribute BoardDto dto,
-                         Principal principal, Authentication auth, Model model) {
-        User user = getUserFromAuthentication(principal, auth);
+                         @CurrentUser User user, Model model) {
         if (user == null) return "redirect:/login";
 
         // Aynı isimde pano daha önce oluşturulmuşsa hata ver
@@ -101,32 +66,26 @@ public class BoardController {
 
     // Belirli bir panoyu görüntüleme sayfası
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @boardService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsBoard(#id, authentication.name)")
     public String viewBoard(@PathVariable Long id,
-                            Principal principal, Authentication auth, Model model) {
-        User user = getUserFromAuthentication(principal, auth);
+                            @CurrentUser AuthenticatedUser user, Model model) {
         if (user == null) return "redirect:/login";
 
-        // ID'ye göre pano bulunur, yoksa 404 fırlatılır
-        Board board = boardService.findById(id)
+        // ID'ye göre pano özeti bulunur, yoksa 404 fırlatılır
+        BoardSummary board = boardService.findSummaryById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pano bulunamadı"));
 
-        // Panoya ait pin'ler bulunur
-        List<Pin> pins = pinService.findByBoard(board);
-
-        // Her bir pin'in resmi base64 formatına dönüştürülerek frontend'e gönderilir
-        List<MainController.PinWithBase64> wrapped = pins.stream()
-                .map(p -> new MainController.PinWithBase64(p, Base64Util.encodeBase64(p.getImageData())))
-                .collect(Collectors.toList());
+        // Panoya ait pin kartları bulunur
+        List<PinCard> pins = pinService.findByBoard(id);
 
         model.addAttribute("board", board);
-        model.addAttribute("pins", wrapped);
+        model.addAttribute("pins", pins); // Görseller /pins/{id}/image üzerinden yüklenir
         return "boards/view"; // boards klasöründeki view.html sayfası
     }
 
     // Pano düzenleme formunu gösterir
     @GetMapping("/{id}/edit")
-    @PreAuthorize("hasRole('ADMIN') or @boardService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsBoard(#id, authentication.name)")
     public String editForm(@PathVariable Long id, Model model) {
         // DTO'ya dönüştürerek formu başlatır
         BoardDto dto = boardService.findById(id)
@@ -143,7 +102,7 @@ public class BoardController {
 
     // Düzenleme işlemini gerçekleştirir
     @PostMapping("/{id}/edit")
-    @PreAuthorize("hasRole('ADMIN') or @boardService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsBoard(#id, authentication.name)")
     public String edit(@PathVariable Long id,
                        @ModelAttribute BoardDto dto,
                        Model model) {
@@ -167,11 +126,10 @@ public class BoardController {
 
     // Pano silme işlemi
     @PostMapping("/{id}/delete")
-    @PreAuthorize("hasRole('ADMIN') or @boardService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsBoard(#id, authentication.name)")
     public String delete(@PathVariable Long id,
-                         Principal principal, Authentication auth,
+                         @CurrentUser AuthenticatedUser user,
                          RedirectAttributes ra) {
-        User user = getUserFromAuthentication(principal, auth);
         if (user == null) return "redirect:/login";
 
         boardService.deleteById(id); // Pano silinir
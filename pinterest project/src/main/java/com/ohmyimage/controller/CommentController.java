@@ -1,21 +1,24 @@
 package com.ohmyimage.controller;
 
+import com.ohmyimage.dto.CommentView;
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.KeysetPage;
 import com.ohmyimage.model.Comment;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.User;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.CurrentUser;
 import com.ohmyimage.service.CommentService;
 import com.ohmyimage.service.PinService;
-import com.ohmyimage.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -26,44 +29,31 @@ public class CommentController {
     // Servis sınıflarının enjekte edilmesi
     @Autowired private CommentService commentService;
     @Autowired private PinService pinService;
-    @Autowired private UserService userService;
 
-    // Authentication ve Principal'dan kullanıcı bilgilerini çıkartıp, User nesnesine dönüştüren yardımcı metod
-    private User getUserFromAuthentication(Principal principal, Authentication authentication) {
-        if (principal == null || authentication == null) return null;
+    // "Daha fazla yorum" için pinin yorumlarından bir sonraki sayfayı sadece yorum satırları olarak döndürür
+    @GetMapping("/{pinId}/comments")
+    public String commentPage(@PathVariable Long pinId,
+                              @RequestParam("cursor") String cursor,
+                              Model model,
+                              @CurrentUser AuthenticatedUser currentUser,
+                              Authentication authentication) {
+        KeysetPage<CommentView> page = commentService.findPage(pinId, KeysetCursor.parse(cursor));
+        boolean isAdmin = currentUser != null && authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-        String identifier;
-        User user = null;
-
-        Object principalObj = authentication.getPrincipal();
-
-        // OAuth2 üzerinden gelen kullanıcıyı yönetiyoruz
-        if (principalObj instanceof OAuth2User) {
-            OAuth2User oauth2User = (OAuth2User) principalObj;
-            identifier = oauth2User.getAttribute("email");
-            if (identifier != null) {
-                user = userService.findByEmail(identifier); // Email ile kullanıcıyı bul
-            }
-        } else if (principalObj instanceof User) {
-            identifier = ((User) principalObj).getUsername();
-            user = userService.findByUsername(identifier); // Normal kullanıcıyı bul
-        } else {
-            identifier = principal.getName();
-            user = userService.findByUsername(identifier); // Eğer yukarıdaki durumlar geçerli değilse, kullanıcı adı ile arama yap
-            if (user == null) {
-                user = userService.findByEmail(identifier); // Eğer bulamazsak, email ile de ararız
-            }
-        }
-        return user;
+        model.addAttribute("pinId", pinId);
+        model.addAttribute("comments", page.items());
+        model.addAttribute("nextCursor", page.nextCursor()); // Son sayfadaysa null
+        model.addAttribute("currentUser", currentUser);
+        model.addAttribute("isAdmin", isAdmin);
+        return "pins/view :: commentPage";
     }
 
     // Pin'e yorum ekleme metodu (giriş yapmış her kullanıcı için)
     @PostMapping("/{pinId}/comments")
     public String addComment(@PathVariable Long pinId,
                              @RequestParam String text,
-                             Principal principal,
-                             Authentication authentication) {
-        User user = getUserFromAuthentication(principal, authentication); // Kullanıcıyı al
+                             @CurrentUser User user) {
         if (user == null) {
             return "redirect:/login"; // Eğer kullanıcı yoksa, login sayfasına yönlendir
         }
@@ -87,11 +77,9 @@ public class CommentController {
 
     // Yorum silme metodu (yorum sahibi veya admin için)
     @PostMapping("/{pinId}/comments/{commentId}/delete")
-    @PreAuthorize("hasRole('ADMIN') or @commentService.findById(#commentId).orElse(null)?.user?.username == #authentication.principal.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsComment(#commentId, authentication.name)")
     public String deleteComment(@PathVariable Long pinId,
-                                @PathVariable Long commentId,
-                                Principal principal,
-                                Authentication authentication) {
+                                @PathVariable Long commentId) {
         // @PreAuthorize: Yalnızca admin veya yorum sahibinin bu işlemi yapabilmesini sağlar
         commentService.deleteById(commentId); // Yorum veritabanından silinir
         return "redirect:/pins/" + pinId; // Yorum silindikten sonra, pin detayına yönlendir
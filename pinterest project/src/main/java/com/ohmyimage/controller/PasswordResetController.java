@@ -46,9 +46,9 @@ public class PasswordResetController {
     @GetMapping("/reset-password")
     public String resetPasswordForm(@RequestParam String token, Model model) {
         // Token'ı doğruluyoruz ve geçerli bir token var mı kontrol ediyoruz
-        Optional<User> userOpt = passwordResetService.validatePasswordResetToken(token);
+        Optional<Long> userId = passwordResetService.validatePasswordResetToken(token);
 
-        if (userOpt.isEmpty()) {
+        if (userId.isEmpty()) {
             // Token geçersiz veya süresi dolmuşsa hata mesajı göster
             model.addAttribute("error", "Token geçersiz veya süresi dolmuş.");
         } else {
@@ -72,7 +72,8 @@ public class PasswordResetController {
         }
 
         // Token'ı doğruluyoruz ve geçerli bir kullanıcı var mı kontrol ediyoruz
-        Optional<User> userOpt = passwordResetService.validatePasswordResetToken(token);
+        Optional<User> userOpt = passwordResetService.validatePasswordResetToken(token)
+                .flatMap(userService::findById);
         if (userOpt.isEmpty()) {
             model.addAttribute("error", "Token geçersiz veya süresi dolmuş.");
             return "auth/reset-password"; // Geçersiz token ile formu tekrar gösteriyoruz
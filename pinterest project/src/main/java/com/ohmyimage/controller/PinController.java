@@ -1,18 +1,32 @@
 package com.ohmyimage.controller;
 
+import com.ohmyimage.dto.BoardSummary;
+import com.ohmyimage.dto.CommentView;
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.KeysetPage;
+import com.ohmyimage.dto.PinCard;
 import com.ohmyimage.dto.PinDto;
+import com.ohmyimage.dto.SearchPage;
 import com.ohmyimage.model.Board;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.User;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.CurrentUser;
 import com.ohmyimage.service.BoardService;
+import com.ohmyimage.service.CommentService;
+import com.ohmyimage.service.ImageService;
 import com.ohmyimage.service.PinService;
-import com.ohmyimage.service.UserService;
-import com.ohmyimage.util.Base64Util;
+import com.ohmyimage.service.SearchService;
+import com.ohmyimage.storage.ImageInfo;
+import com.ohmyimage.util.DeferredResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -20,10 +34,12 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.security.Principal;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 @RequestMapping("/pins")
@@ -31,33 +47,14 @@ public class PinController {
 
     @Autowired private PinService pinService;
     @Autowired private BoardService boardService;
-    @Autowired private UserService userService;
-
-    private User getUserFromAuthentication(Principal principal, Authentication authentication) {
-        if (principal == null || authentication == null) return null;
-        Object principalObj = authentication.getPrincipal();
-        String identifier = null;
-        User user = null;
-        if (principalObj instanceof OAuth2User) {
-            OAuth2User oauth2User = (OAuth2User) principalObj;
-            identifier = oauth2User.getAttribute("email");
-            if (identifier != null) user = userService.findByEmail(identifier);
-        } else if (principalObj instanceof User) {
-            identifier = ((User) principalObj).getUsername();
-            user = userService.findByUsername(identifier);
-        } else {
-            identifier = principal.getName();
-            user = userService.findByUsername(identifier);
-            if (user == null) user = userService.findByEmail(identifier);
-        }
-        return user;
-    }
+    @Autowired private ImageService imageService;
+    @Autowired private SearchService searchService;
+    @Autowired private CommentService commentService;
 
     @GetMapping("/create")
-    public String createPinForm(Model model, Principal principal, Authentication authentication) {
-        User user = getUserFromAuthentication(principal, authentication);
+    public String createPinForm(Model model, @CurrentUser AuthenticatedUser user) {
         if (user == null) return "redirect:/login";
-        List<Board> boards = boardService.findByOwner(user);
+        List<BoardSummary> boards = boardService.findByOwner(user.id());
         model.addAttribute("boards", boards);
         model.addAttribute("pinDto", new PinDto());
         return "pins/create";
@@ -65,16 +62,15 @@ public class PinController {
 
     @PostMapping("/create")
     public String createPin(@ModelAttribute PinDto pinDto,
-                            Principal principal,
+                            @CurrentUser User user,
                             Authentication authentication,
                             Model model) {
-        User user = getUserFromAuthentication(principal, authentication);
         if (user == null) return "redirect:/login";
         try {
             MultipartFile file = pinDto.getImage();
             if (file == null || file.isEmpty()) {
                 model.addAttribute("error", "Lütfen bir görsel yükleyiniz.");
-                model.addAttribute("boards", boardService.findByOwner(user));
+                model.addAttribute("boards", boardService.findByOwner(user.getId()));
                 model.addAttribute("pinDto", pinDto);
                 return "pins/create";
             }
@@ -88,46 +84,51 @@ public class PinController {
             Pin pin = Pin.builder()
                     .title(pinDto.getTitle())
                     .description(pinDto.getDescription())
-                    .imageData(file.getBytes())
                     .createdAt(LocalDateTime.now())
                     .owner(user)
                     .board(board)
                     .build();
-            pinService.save(pin);
+            pinService.saveWithImage(pin, file);
             return "redirect:/boards/" + board.getId();
         } catch (ResponseStatusException rse) {
             model.addAttribute("error", rse.getReason());
-            model.addAttribute("boards", boardService.findByOwner(user));
+            model.addAttribute("boards", boardService.findByOwner(user.getId()));
             model.addAttribute("pinDto", pinDto);
             return "pins/create";
         }
         catch (Exception e) {
             model.addAttribute("error", "Pin oluşturulamadı: " + e.getMessage());
-            model.addAttribute("boards", boardService.findByOwner(user));
+            model.addAttribute("boards", boardService.findByOwner(user.getId()));
             model.addAttribute("pinDto", pinDto);
             return "pins/create";
         }
     }
 
     @GetMapping("/{id}")
-    public String viewPin(@PathVariable Long id, Model model, Principal principal, Authentication authentication) {
+    public String viewPin(@PathVariable Long id,
+                          @RequestParam(value = "commentCursor", required = false) String commentCursor,
+                          Model model, @CurrentUser AuthenticatedUser currentUser, Authentication authentication) {
         Pin pin = pinService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pin bulunamadı"));
 
-        // Mevcut kullanıcıyı al ve admin durumunu kontrol et
-        User currentUser = getUserFromAuthentication(principal, authentication);
+        // Mevcut kullanıcının sahiplik ve admin durumunu kontrol et
         boolean isOwner = false;
         boolean isAdmin = false;
 
         if (currentUser != null) {
             // Pin sahibi silinmiş mi null kontrolü
-            isOwner = pin.getOwner() != null && pin.getOwner().getId().equals(currentUser.getId());
+            isOwner = pin.getOwner() != null && pin.getOwner().getId().equals(currentUser.id());
             isAdmin = authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
         }
 
+        // Yorumların sadece ilk sayfası; devamı "Daha fazla yorum" ile /pins/{id}/comments'ten gelir
+        KeysetPage<CommentView> comments = commentService.findPage(id, KeysetCursor.parse(commentCursor));
+
         model.addAttribute("pin", pin);
-        model.addAttribute("imgBase64", Base64Util.encodeBase64(pin.getImageData()));
+        model.addAttribute("pinId", pin.getId());
+        model.addAttribute("comments", comments.items());
+        model.addAttribute("nextCursor", comments.nextCursor()); // Son sayfadaysa null
         model.addAttribute("currentUser", currentUser); // HTML'de kullanıcı ID'si kontrolü için kullanılabilir
         model.addAttribute("isOwner", isOwner); // HTML'de sahiplik kontrolü için kullanılabilir
         model.addAttribute("isAdmin", isAdmin); // HTML'de admin yetkisi kontrolü için kullanılabilir
@@ -135,12 +136,55 @@ public class PinController {
         return "pins/view";
     }
 
+    // Pin görselini ham byte olarak döndürür (tarayıcı ve proxy önbelleğine uygun).
+    // v parametresi görselin özetiyle eşleşiyorsa URL değişmez kabul edilip uzun süre önbelleklenir,
+    // eşleşmiyorsa her seferinde ETag ile doğrulanır (If-None-Match -> 304).
+    // w parametresi verilirse o genişliğe uyan en küçük küçük resim gönderilir; henüz üretilmediyse
+    // orijinal gönderilir ve önbelleklenmez, böylece küçük resim hazır olunca tarayıcı onu alır.
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> pinImage(@PathVariable Long id,
+                                             @RequestParam(value = "v", required = false) String version,
+                                             @RequestParam(value = "w", required = false) Integer width) throws IOException {
+        // Sadece pin meta verisi okunur; görsel içeriği yanıt gövdesi yazılırken ayrıca yüklenir
+        Pin pin = pinService.findById(id)
+                .filter(p -> p.getImageSha256() != null)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Görsel bulunamadı"));
+        ImageInfo original = new ImageInfo(pin.getImageSha256(), pin.getImageContentType(), pin.getImageSize());
+        ImageService.Variant variant = width != null
+                ? imageService.selectVariant(original, pin.getImageWidth(), width)
+                : new ImageService.Variant(original, false);
+        ImageInfo image = variant.image();
+
+        CacheControl cacheControl = original.key().equals(version) && !variant.pending()
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        LocalDateTime modifiedAt = pin.getImageUpdatedAt() != null ? pin.getImageUpdatedAt() : pin.getCreatedAt();
+
+        boolean thumbnail = !image.key().equals(original.key());
+        Resource body = new DeferredResource("pin image " + image.key(), image.size(), () ->
+                imageService.openForResponse(image, thumbnail)
+                        .orElseThrow(() -> new FileNotFoundException("Görsel içeriği bulunamadı: " + image.key())));
+
+        // 304 kontrolü Spring tarafından ETag / Last-Modified başlıklarına göre yapılır
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .contentLength(image.size())
+                .eTag(image.key())
+                .cacheControl(cacheControl);
+        if (modifiedAt != null) {
+            response.lastModified(modifiedAt.atZone(ZoneId.systemDefault()));
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/search")
-    public String searchPins(@RequestParam String query, Model model, Principal principal, Authentication authentication) {
-        List<Pin> results = pinService.searchByTitle(query);
+    public String searchPins(@RequestParam String query,
+                             @RequestParam(defaultValue = "0") int page,
+                             Model model, @CurrentUser AuthenticatedUser currentUser, Authentication authentication) {
+        // Başlık ve açıklamada tam metin arama, ilgililiğe göre sıralı ve sayfalı
+        SearchPage<PinCard> results = searchService.searchPins(query, page, SearchService.PAGE_SIZE);
 
-        // Mevcut kullanıcıyı al ve admin durumunu kontrol et
-        User currentUser = getUserFromAuthentication(principal, authentication);
+        // Mevcut kullanıcının admin durumunu kontrol et
         boolean isAdmin = false;
 
         if (currentUser != null && authentication != null) {
@@ -148,12 +192,8 @@ public class PinController {
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
         }
 
-        // Pinleri Base64 formatına dönüştürerek modele ekle
-        List<MainController.PinWithBase64> wrappers = results.stream()
-                .map(p -> new MainController.PinWithBase64(p, Base64Util.encodeBase64(p.getImageData())))
-                .collect(Collectors.toList());
-
-        model.addAttribute("pins", wrappers);
+        model.addAttribute("pins", results.items()); // Görseller /pins/{id}/image üzerinden ayrıca yüklenir
+        model.addAttribute("results", results); // Sayfa bağlantıları için
         model.addAttribute("currentUser", currentUser); // HTML'de kullanıcı ID'si kontrolü için kullanılabilir
         model.addAttribute("isAdmin", isAdmin); // HTML'de admin yetkisi kontrolü için kullanılabilir
         model.addAttribute("searchQuery", query);
@@ -162,12 +202,11 @@ public class PinController {
     }
 
     @GetMapping("/{id}/edit")
-    @PreAuthorize("hasRole('ADMIN') or @pinService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsPin(#id, authentication.name)")
     public String editPinForm(@PathVariable Long id,
                               Model model,
-                              Principal principal,
+                              @CurrentUser AuthenticatedUser currentUser,
                               Authentication authentication) {
-        User currentUser = getUserFromAuthentication(principal, authentication);
         if (currentUser == null) return "redirect:/login";
         Pin pin = pinService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pin bulunamadı"));
@@ -177,23 +216,22 @@ public class PinController {
         pinDto.setDescription(pin.getDescription());
         pinDto.setBoardId(pin.getBoard().getId());
         // Adminse tüm panoları değilse sadece kendi panolarını göster
-        List<Board> boards = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
+        List<BoardSummary> boards = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
                 ? boardService.findAll()
-                : boardService.findByOwner(currentUser);
+                : boardService.findByOwner(currentUser.id());
         model.addAttribute("boards", boards);
         model.addAttribute("pinDto", pinDto);
         return "pins/edit";
     }
 
     @PostMapping("/{id}/edit")
-    @PreAuthorize("hasRole('ADMIN') or @pinService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsPin(#id, authentication.name)")
     public String editPin(@PathVariable Long id,
                           @ModelAttribute PinDto pinDto,
-                          Principal principal,
+                          @CurrentUser AuthenticatedUser currentUser,
                           Authentication authentication,
                           Model model,
                           RedirectAttributes redirectAttributes) {
-        User currentUser = getUserFromAuthentication(principal, authentication);
         if (currentUser == null) return "redirect:/login";
         Pin pin = pinService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pin bulunamadı"));
@@ -203,7 +241,7 @@ public class PinController {
             boolean isAdmin = authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
             // Admin değilse ve hedef pano kullanıcının kendi panosu değilse izin verme
-            if (!isAdmin && (board.getOwner() == null || !board.getOwner().getId().equals(currentUser.getId()))) {
+            if (!isAdmin && (board.getOwner() == null || !board.getOwner().getId().equals(currentUser.id()))) {
                  throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Bu panoya pini taşıma yetkiniz yok.");
             }
             pin.setTitle(pinDto.getTitle());
@@ -211,9 +249,10 @@ public class PinController {
             pin.setBoard(board);
             MultipartFile file = pinDto.getImage();
             if (file != null && !file.isEmpty()) {
-                pin.setImageData(file.getBytes());
+                pinService.saveWithImage(pin, file);
+            } else {
+                pinService.save(pin);
             }
-            pinService.save(pin);
             redirectAttributes.addFlashAttribute("message", "Pin başarıyla güncellendi.");
             return "redirect:/pins/" + id;
         } catch (ResponseStatusException rse) {
@@ -222,7 +261,7 @@ public class PinController {
             model.addAttribute("boards",
                     authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
                             ? boardService.findAll()
-                            : boardService.findByOwner(currentUser)
+                            : boardService.findByOwner(currentUser.id())
             );
             model.addAttribute("pinDto", pinDto); // Dto'yu tekrar modele ekle
             return "pins/edit";
@@ -232,7 +271,7 @@ public class PinController {
              model.addAttribute("boards",
                     authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
                             ? boardService.findAll()
-                            : boardService.findByOwner(currentUser)
+                            : boardService.findByOwner(currentUser.id())
             );
              model.addAttribute("pinDto", pinDto); // Dto'yu tekrar modele ekle
             return "pins/edit";
@@ -240,17 +279,15 @@ public class PinController {
     }
 
     @PostMapping("/{id}/delete")
-    @PreAuthorize("hasRole('ADMIN') or @pinService.findById(#id).orElse(null)?.owner?.username == authentication.name")
+    @PreAuthorize("hasRole('ADMIN') or @ownership.ownsPin(#id, authentication.name)")
     public String deletePin(@PathVariable Long id,
-                            Principal principal,
-                            Authentication authentication,
+                            @CurrentUser AuthenticatedUser currentUser,
                             RedirectAttributes redirectAttributes) {
-        User currentUser = getUserFromAuthentication(principal, authentication);
         if (currentUser == null) return "redirect:/login";
         // PreAuthorize anotasyonu kontrolü zaten yaptı findById çağrısına gerek yok
         try {
              // Silinecek pinin pano ID'sini alalım
-            Long boardId = pinService.findById(id).map(Pin::getBoard).map(Board::getId).orElse(null);
+            Long boardId = pinService.findBoardId(id).orElse(null);
 
             pinService.deleteById(id);
             redirectAttributes.addFlashAttribute("message", "Pin başarıyla silindi.");
@@ -0,0 +1,81 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.User;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.CurrentUser;
+import com.ohmyimage.service.BoardService;
+import com.ohmyimage.service.PinImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// ZIP arşivinden toplu pin içe aktarma (bkz. PinImportService)
+@Controller
+@RequestMapping(PinImportController.PATH)
+public class PinImportController {
+
+    // Büyük arşivler için ayrı multipart sınırıyla kayıtlı servlet yolu (bkz. WebConfig)
+    public static final String PATH = "/pins/import";
+
+    @Autowired private PinImportService pinImportService;
+    @Autowired private BoardService boardService;
+
+    @GetMapping
+    public String importForm(Model model, @CurrentUser AuthenticatedUser user) {
+        if (user == null) return "redirect:/login";
+        model.addAttribute("boards", boardService.findByOwner(user.id()));
+        return "pins/import";
+    }
+
+    @PostMapping
+    public String startImport(@RequestParam("archive") MultipartFile archive,
+                              @RequestParam("boardId") Long boardId,
+                              @CurrentUser User user,
+                              Authentication authentication,
+                              Model model) {
+        if (user == null) return "redirect:/login";
+        try {
+            if (archive.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lütfen bir ZIP dosyası seçiniz.");
+            }
+            Board board = boardService.findById(boardId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Seçilen pano bulunamadı"));
+            // Panoya pin ekleme yetkisi kontrolü (pano sahibi veya admin)
+            if ((board.getOwner() == null || !board.getOwner().getId().equals(user.getId())) &&
+                authentication.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Bu panoya pin ekleme yetkiniz yok.");
+            }
+            // İstek bitince multipart dosyası silindiği için arşiv iş bitene kadar ayrı bir geçici dosyada tutulur
+            Path copy = Files.createTempFile("pin-import-", ".zip");
+            archive.transferTo(copy);
+            PinImportService.ImportJob job = pinImportService.submit(copy, archive.getOriginalFilename(), user, board);
+            return "redirect:/pins/import/" + job.getId();
+        } catch (ResponseStatusException rse) {
+            model.addAttribute("error", rse.getReason());
+        } catch (Exception e) {
+            model.addAttribute("error", "İçe aktarma başlatılamadı: " + e.getMessage());
+        }
+        model.addAttribute("boards", boardService.findByOwner(user.getId()));
+        return "pins/import";
+    }
+
+    // İşin ilerleme durumu; iş sürerken sayfa kendini yeniler
+    @GetMapping("/{jobId}")
+    public String importStatus(@PathVariable String jobId, Model model, @CurrentUser AuthenticatedUser user) {
+        if (user == null) return "redirect:/login";
+        PinImportService.ImportJob job = pinImportService.findJob(jobId)
+                .filter(j -> j.getOwnerId().equals(user.id()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "İçe aktarma bulunamadı"));
+        model.addAttribute("job", job);
+        return "pins/import-status";
+    }
+}
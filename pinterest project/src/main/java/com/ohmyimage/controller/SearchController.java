@@ -1,39 +1,68 @@
 package com.ohmyimage.controller;
 
-import com.ohmyimage.model.Board;
-import com.ohmyimage.model.Pin;
-import com.ohmyimage.model.User;
-import com.ohmyimage.service.BoardService;
-import com.ohmyimage.service.PinService;
-import com.ohmyimage.service.UserService;
+import com.ohmyimage.dto.SearchPage;
+import com.ohmyimage.dto.UniversalSearchResult;
+import com.ohmyimage.search.Suggestion;
+import com.ohmyimage.service.SearchService;
+import com.ohmyimage.service.UniversalSearchService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 @Controller
 public class SearchController {
 
-    @Autowired private UserService userService;
-    @Autowired private BoardService boardService;
-    @Autowired private PinService pinService;
+    @Autowired private UniversalSearchService universalSearchService;
+    @Autowired private SearchService searchService;
 
+    // Tüm kategorilerde ilk sonuçlar; kategori süreleri Server-Timing başlığında döner
     @GetMapping("/search")
     public String searchAll(
             @RequestParam("q") String query,
-            Model model) {
+            Model model,
+            HttpServletResponse response) {
 
-        List<User>  users  = userService.searchByUsername(query);
-        List<Board> boards = boardService.searchByName(query);
-        List<Pin>   pins   = pinService.searchByTitle(query);
+        UniversalSearchResult result = universalSearchService.search(query);
+        response.setHeader("Server-Timing", result.serverTiming());
 
         model.addAttribute("query",  query);
-        model.addAttribute("users",  users);
-        model.addAttribute("boards", boards);
-        model.addAttribute("pins",   pins);
+        model.addAttribute("result", result);
         return "search/results";
     }
-}
\ No newline at end of file
+
+    // Arama kutusu önerileri (JSON); her tuş vuruşunda çağrılır, veritabanına gitmez
+    @GetMapping("/search/suggest")
+    @ResponseBody
+    public List<Suggestion> suggest(@RequestParam("q") String query) {
+        return searchService.suggest(query);
+    }
+
+    // Tek bir kategorinin tüm sonuçları, sayfa sayfa ("Tümünü gör" bağlantısı)
+    @GetMapping("/search/{type:users|boards}")
+    public String searchCategory(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @PathVariable String type,
+            Model model) {
+
+        SearchPage<?> results = switch (type) {
+            case "users" -> searchService.searchUsers(query, page, SearchService.PAGE_SIZE);
+            case "boards" -> searchService.searchBoards(query, page, SearchService.PAGE_SIZE);
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        };
+
+        model.addAttribute("query", query);
+        model.addAttribute("type", type);
+        model.addAttribute("results", results);
+        return "search/category";
+    }
+}
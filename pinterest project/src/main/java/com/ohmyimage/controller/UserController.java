@@ -1,57 +1,37 @@
 package com.ohmyimage.controller;
 
-import com.ohmyimage.model.Board;
+import com.ohmyimage.dto.BoardSummary;
+import com.ohmyimage.dto.UserDeletionReport;
+import com.ohmyimage.dto.UserSummary;
 import com.ohmyimage.model.User;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.CurrentUser;
 import com.ohmyimage.service.BoardService;
+import com.ohmyimage.service.CounterService;
 import com.ohmyimage.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
 @Controller
 public class UserController {
 
     @Autowired private UserService userService;
     @Autowired private BoardService boardService;
-
-    // Giriş yapan kullanıcıyı alır (form login veya OAuth2)
-    private User getUser(Principal principal, Authentication auth) {
-        if (principal == null || auth == null) return null;
-        Object p = auth.getPrincipal();
-        String id = null;
-        User u = null;
-        if (p instanceof OAuth2User) {
-            // OAuth2 üzerinden giriş yapan kullanıcıyı alıyoruz
-            id = ((OAuth2User) p).getAttribute("email");
-            u = userService.findByEmail(id);
-        } else if (p instanceof User) {
-            // Standart kullanıcı için username üzerinden alıyoruz
-            id = ((User) p).getUsername();
-            u = userService.findByUsername(id);
-        } else {
-            // Principal üzerinden de kullanıcıyı bulabiliyoruz
-            id = principal.getName();
-            u = userService.findByUsername(id);
-            if (u == null) u = userService.findByEmail(id);
-        }
-        return u;
-    }
+    @Autowired private CounterService counterService;
 
     // Kullanıcının profil sayfası
     @GetMapping("/profile")
-    public String profile(Principal principal, Authentication auth, Model model) {
-        User user = getUser(principal, auth);
+    public String profile(@CurrentUser AuthenticatedUser user, Model model) {
         if (user == null) return "redirect:/login"; // Giriş yapılmamışsa login sayfasına yönlendir
         model.addAttribute("user", user);
-        model.addAttribute("boards", boardService.findByOwner(user)); // Kullanıcının sahip olduğu board'ları getir
+        model.addAttribute("boards", boardService.findByOwner(user.id())); // Kullanıcının sahip olduğu board'ları getir
         return "user/profile";
     }
 
@@ -65,21 +45,20 @@ public class UserController {
     // Kendi hesabını silme işlemi
     @PostMapping("/profile/delete")
     @PreAuthorize("isAuthenticated()") // Sadece giriş yapmış kullanıcılar işlemi gerçekleştirebilir
-    public String deleteOwn(Principal principal, Authentication auth, RedirectAttributes attrs) {
-        User user = getUser(principal, auth);
+    public String deleteOwn(@CurrentUser AuthenticatedUser user, RedirectAttributes attrs) {
         if (user == null) { // Kullanıcı bulunamazsa hata mesajı göster
             attrs.addFlashAttribute("error", "Hesabınız bulunamadı.");
             return "redirect:/profile";
         }
 
         // Admin kullanıcının kendi hesabını silmesini engelle
-        if (user.getUsername().equals("admin")) {
+        if (user.username().equals("admin")) {
             attrs.addFlashAttribute("error", "Ana admin hesabı bu sayfadan silinemez. Yönetim panelini kullanın.");
             return "redirect:/profile";
         }
 
         try {
-            userService.deleteById(user.getId()); // Kullanıcıyı sil
+            userService.deleteById(user.id()); // Kullanıcıyı sil
             SecurityContextHolder.clearContext(); // Güvenlik bağlamını temizle (kullanıcı çıkış yapacak)
             attrs.addFlashAttribute("message", "Hesabınız başarıyla silindi.");
             return "redirect:/login?accountDeleted"; // Hesap silindikten sonra login sayfasına yönlendir
@@ -93,7 +72,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/users")
     public String listUsers(Model model) {
-        List<User> users = userService.findAll(); // Tüm kullanıcıları al
+        List<UserSummary> users = userService.findAll(); // Tüm kullanıcıları al
         model.addAttribute("users", users);
         return "admin/users";
     }
@@ -102,16 +81,54 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/users/{id}")
     public String viewUser(@PathVariable Long id, Model model) {
-        User user = userService.findById(id).orElse(null); // Kullanıcıyı id ile bul
+        UserSummary user = userService.findSummaryById(id).orElse(null); // Kullanıcıyı id ile bul
         if (user == null) {
             return "redirect:/admin/users"; // Kullanıcı bulunamazsa listeye geri dön
         }
         model.addAttribute("user", user);
-        List<Board> boards = boardService.findByOwner(user); // Kullanıcının board'larını getir
+        List<BoardSummary> boards = boardService.findByOwner(user.id()); // Kullanıcının board'larını getir
         model.addAttribute("boards", boards);
         return "admin/user-detail";
     }
 
+    // Admin – seçilen kullanıcıları tek seferde siler, süreleri mesajda gösterir
+    @PostMapping("/admin/users/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String adminDeleteUsers(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                   @CurrentUser AuthenticatedUser currentUser,
+                                   RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Silinecek kullanıcı seçilmedi.");
+            return "redirect:/admin/users";
+        }
+        // Admin kendi hesabını toplu silmeyle silemez
+        List<Long> targets = ids.stream().filter(id -> currentUser == null || !id.equals(currentUser.id())).toList();
+        try {
+            UserDeletionReport report = userService.deleteUsers(targets);
+            redirectAttributes.addFlashAttribute("message", report.deleted() + " kullanıcı " + report.elapsedMillis()
+                    + " ms içinde silindi (" + report.stepSummary() + ").");
+            if (!report.skipped().isEmpty() || targets.size() < ids.size()) {
+                List<String> skipped = new ArrayList<>(report.skipped());
+                if (targets.size() < ids.size()) {
+                    skipped.add("kendi hesabınız");
+                }
+                redirectAttributes.addFlashAttribute("error", "Atlananlar: " + String.join(", ", skipped));
+            }
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Toplu silme sırasında hata: " + e.getMessage());
+        }
+        return "redirect:/admin/users";
+    }
+
+    // Admin – pin/yorum sayaçlarını tablolardan yeniden hesaplatır
+    @PostMapping("/admin/counters/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String reconcileCounters(RedirectAttributes redirectAttributes) {
+        counterService.reconcile();
+        redirectAttributes.addFlashAttribute("message", "Sayaçlar yeniden hesaplandı.");
+        return "redirect:/admin/users";
+    }
+
     // Admin – kullanıcı silme işlemi
     @PostMapping("/admin/users/{id}/delete")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,5 @@
+package com.ohmyimage.dto;
+
+// Pano listeleri ve pano başlığı için özet (pinler ve sahip entity'si yüklenmez)
+public record BoardSummary(Long id, String name, Long ownerId, String ownerUsername, int pinCount) {
+}
@@ -0,0 +1,25 @@
+package com.ohmyimage.dto;
+
+import java.util.List;
+
+// Genel aramada tek bir kategorinin (kullanıcı, pano, pin) sonucu.
+// complete=false ise kategori süre sınırına yetişemedi veya hata verdi; sayfa diğer kategorilerle gösterilir.
+public record CategoryResult<T>(String name, List<T> items, int total, boolean complete, long elapsedNanos) {
+
+    public static <T> CategoryResult<T> of(String name, SearchPage<T> page, long elapsedNanos) {
+        return new CategoryResult<>(name, page.items(), page.total(), true, elapsedNanos);
+    }
+
+    public static <T> CategoryResult<T> incomplete(String name, long elapsedNanos) {
+        return new CategoryResult<>(name, List.of(), 0, false, elapsedNanos);
+    }
+
+    // "Tümünü gör" bağlantısı gösterilsin mi
+    public boolean hasMore() {
+        return complete && total > items.size();
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ohmyimage.dto;
+
+import java.time.LocalDateTime;
+
+// Pin sayfasındaki yorum satırı: yorum ve yazarın adı tek sorguda okunur (bkz. CommentRepository).
+// Yazarı silinmiş yorumlarda userId ve username null'dır.
+public record CommentView(Long id,
+                          String text,
+                          LocalDateTime createdAt,
+                          Long userId,
+                          String username) {
+}
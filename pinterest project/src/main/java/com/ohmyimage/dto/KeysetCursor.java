@@ -0,0 +1,29 @@
+package com.ohmyimage.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Keyset (cursor) sayfalama konumu: (createdAt, id) sıralamasında son görülen kayıt.
+// URL'de "2025-01-31T12:00:00.123456_42" biçiminde taşınır.
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    public String encode() {
+        return createdAt + "_" + id;
+    }
+
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int separator = value.lastIndexOf('_');
+        try {
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Geçersiz sayfa imleci");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ohmyimage.dto;
+
+import java.util.List;
+
+// Keyset sayfalamada tek bir sayfa; next null ise son sayfadır
+public record KeysetPage<T>(List<T> items, KeysetCursor next) {
+
+    public String nextCursor() {
+        return next != null ? next.encode() : null;
+    }
+}
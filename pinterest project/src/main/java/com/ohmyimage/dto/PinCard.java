@@ -0,0 +1,14 @@
+package com.ohmyimage.dto;
+
+import java.time.LocalDateTime;
+
+// Listeleme sayfalarındaki pin kartı: sadece kartta gösterilen sütunlar ve sahibin adı.
+// Repository'de constructor expression ile tek sorguda doldurulur; Pin entity'si ve ilişkileri yüklenmez.
+public record PinCard(Long id,
+                      String title,
+                      String imageSha256,
+                      LocalDateTime createdAt,
+                      Long ownerId,
+                      String ownerUsername,
+                      int commentCount) {
+}
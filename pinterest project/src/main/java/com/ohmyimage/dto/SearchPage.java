@@ -0,0 +1,15 @@
+package com.ohmyimage.dto;
+
+import java.util.List;
+
+// Arama sonuçlarının bir sayfası (page 0'dan başlar); total eşleşen tüm kayıtların sayısıdır
+public record SearchPage<T>(List<T> items, int page, int size, int total) {
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total;
+    }
+}
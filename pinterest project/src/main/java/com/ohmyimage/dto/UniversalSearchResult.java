@@ -0,0 +1,19 @@
+package com.ohmyimage.dto;
+
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Genel arama sayfasının üç kategorisi
+public record UniversalSearchResult(CategoryResult<UserSummary> users,
+                                    CategoryResult<BoardSummary> boards,
+                                    CategoryResult<PinCard> pins) {
+
+    // Kategori sürelerini Server-Timing başlığı biçiminde döndürür: "users;dur=1.20, boards;dur=0.85, ..."
+    public String serverTiming() {
+        return Stream.of(users, boards, pins)
+                .map(c -> String.format(Locale.ROOT, "%s;dur=%.2f", c.name(), c.elapsedMillis())
+                        + (c.complete() ? "" : ";desc=\"incomplete\""))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ohmyimage.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Toplu kullanıcı silme sonucu: silinen/atlanan kullanıcılar ve adım adım süreler (ms).
+// Her adım tüm kullanıcılar için tek bir toplu sorgudur (bkz. UserService.deleteUsers).
+public record UserDeletionReport(int deleted,
+                                 List<String> skipped,
+                                 Map<String, Long> stepMillis,
+                                 long elapsedMillis) {
+
+    // Yönetici paneli mesajı için: "tokens 3 ms, comments 10 ms, ..."
+    public String stepSummary() {
+        StringBuilder summary = new StringBuilder();
+        stepMillis.forEach((step, millis) -> {
+            if (!summary.isEmpty()) {
+                summary.append(", ");
+            }
+            summary.append(step).append(' ').append(millis).append(" ms");
+        });
+        return summary.toString();
+    }
+}
@@ -0,0 +1,5 @@
+package com.ohmyimage.dto;
+
+// Kullanıcı listeleri için özet (roller ve şifre yüklenmez)
+public record UserSummary(Long id, String username, String email) {
+}
@@ -0,0 +1,54 @@
+package com.ohmyimage.migration;
+
+import com.ohmyimage.repository.PinImageRepository;
+import com.ohmyimage.storage.FileSystemImageStore;
+import com.ohmyimage.storage.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// pin_image tablosundaki görselleri diskteki store'a kopyalar. Uygulama çalışırken yapılabilir:
+//   java -jar ohmyimage.jar --ohmyimage.images.store=filesystem --ohmyimage.images.backfill=true
+// Diskte zaten olan görseller atlanır, yani yarıda kalırsa tekrar çalıştırmak yeterlidir.
+@Component
+@ConditionalOnProperty(name = "ohmyimage.images.backfill", havingValue = "true")
+public class ImageStoreBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStoreBackfill.class);
+
+    @Autowired private ImageStore imageStore;
+    @Autowired private PinImageRepository pinImageRepository;
+
+    @Override
+    public void run(String... args) {
+        if (!(imageStore instanceof FileSystemImageStore)) {
+            logger.warn("Image backfill skipped: ohmyimage.images.store is not 'filesystem'");
+            return;
+        }
+        List<String> keys = pinImageRepository.findAllKeys();
+        logger.info("Backfilling {} images from pin_image into the filesystem store", keys.size());
+
+        int copied = 0;
+        int failed = 0;
+        for (String key : keys) {
+            if (imageStore.exists(key)) {
+                continue;
+            }
+            try {
+                // Diskte olmayan görseli açmak, veritabanından okuyup diske yazar
+                imageStore.open(key);
+                copied++;
+            } catch (Exception e) {
+                failed++;
+                logger.warn("Image {} could not be copied: {}", key, e.getMessage());
+            }
+        }
+        logger.info("Image backfill finished: {} copied, {} failed, {} already on disk",
+                copied, failed, keys.size() - copied - failed);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ohmyimage.migration;
+
+import com.ohmyimage.repository.PinImageRepository;
+import com.ohmyimage.service.ImageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Eski şemada pin.image_data sütununda duran görselleri pin_image tablosuna taşır.
+// Her pin ayrı bir transaction'da taşınır (bellekte aynı anda tek görsel olur); iş bitince sütun kaldırılır.
+// Sütun yoksa hiçbir şey yapmaz, yani her açılışta güvenle çalışabilir.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PinImageMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinImageMigration.class);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PinImageRepository pinImageRepository;
+    @Autowired private ImageService imageService;
+
+    @Override
+    public void run(String... args) {
+        if (!legacyColumnExists()) {
+            return;
+        }
+        List<Long> pinIds = jdbcTemplate.queryForList(
+                "select id from pin where image_data is not null order by id", Long.class);
+        logger.info("Migrating {} pin images from pin.image_data to pin_image", pinIds.size());
+
+        int moved = 0;
+        for (Long pinId : pinIds) {
+            transactionTemplate.executeWithoutResult(status -> migratePin(pinId));
+            if (++moved % 100 == 0) {
+                logger.info("Migrated {}/{} pin images", moved, pinIds.size());
+            }
+        }
+
+        jdbcTemplate.execute("alter table pin drop column image_data");
+        logger.info("Pin image migration finished, {} images moved and pin.image_data dropped", moved);
+    }
+
+    private void migratePin(Long pinId) {
+        byte[] data = jdbcTemplate.queryForObject(
+                "select image_data from pin where id = ?", byte[].class, pinId);
+        if (data == null) {
+            return;
+        }
+        String contentType = imageService.detectContentType(data);
+        if (contentType == null) {
+            contentType = "application/octet-stream"; // Eski kayıtlarda format kontrolü yapılmıyordu
+        }
+        String key = imageService.sha256Hex(data);
+        LocalDateTime now = LocalDateTime.now();
+        pinImageRepository.insertIfAbsent(key, contentType, data.length, data, now);
+        jdbcTemplate.update("update pin set image_sha256 = ?, image_content_type = ?, image_size = ?, " +
+                        "image_updated_at = coalesce(image_updated_at, created_at, ?), image_data = null where id = ?",
+                key, contentType, (long) data.length, now, pinId);
+    }
+
+    private boolean legacyColumnExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns " +
+                        "where lower(table_name) = 'pin' and lower(column_name) = 'image_data'", Integer.class);
+        return count != null && count > 0;
+    }
+}
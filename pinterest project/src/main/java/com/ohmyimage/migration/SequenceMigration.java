@@ -0,0 +1,66 @@
+package com.ohmyimage.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Entity id'leri IDENTITY sütunlarından pooled sequence'lara geçti (allocationSize = 50).
+// Hibernate yeni sequence'ları 1'den başlatır; bu sınıf her sequence'ı tablodaki en büyük id'nin
+// bir blok ötesine taşır, böylece mevcut id'ler korunur ve yeni kayıtlarla çakışmaz.
+// Sequence zaten ileride ise dokunmaz, yani her açılışta güvenle çalışabilir.
+// Eski IDENTITY sütunları "generated by default" olduğu için Hibernate'in verdiği id'leri kabul eder.
+// PostgreSQL'e özgüdür; şemayı Hibernate'in sıfırdan kurduğu veritabanlarında (test profili) kapatılır.
+@Component
+@ConditionalOnProperty(name = "ohmyimage.migrations.sequences", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SequenceMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceMigration.class);
+
+    // Entity'lerdeki @SequenceGenerator allocationSize değeri
+    private static final int ALLOCATION_SIZE = 50;
+
+    // tablo -> sequence
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "pin", "pin_seq",
+            "board", "board_seq",
+            "comment", "comment_seq",
+            "app_user", "app_user_seq",
+            "role", "role_seq",
+            "password_reset_token", "password_reset_token_seq");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        SEQUENCES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String table, String sequence) {
+        if (!exists(table) || !exists(sequence)) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        Long current = jdbcTemplate.queryForObject("select last_value from " + sequence, Long.class);
+        // Pooled optimizer bir sonraki değerden geriye doğru ALLOCATION_SIZE id kullanır
+        long required = maxId + ALLOCATION_SIZE;
+        if (current != null && current >= required) {
+            return;
+        }
+        jdbcTemplate.queryForObject("select setval(cast(? as regclass), ?, true)", Long.class, sequence, required);
+        logger.info("Sequence {} moved past existing {} ids (max id {})", sequence, table, maxId);
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select to_regclass(?) is not null", Boolean.class, relation));
+    }
+}
@@ -2,6 +2,10 @@ package com.ohmyimage.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -10,13 +14,22 @@ import java.util.Set;
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
+@DynamicUpdate // isim değişikliği pinCount'u, sayaç güncellemesi ismi yazmaz (eski değerle ezilmez)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // pinCount entity üzerinden güncellenir, sadece o kayıt geçersiz olur
 public class Board {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_seq")
+    @SequenceGenerator(name = "board_seq", sequenceName = "board_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    // Pin sayısı (sayaç); sadece CounterService değiştirir, yeni pano insert'i bu sütuna yazmaz
+    @Column(nullable = false, insertable = false)
+    @ColumnDefault("0")
+    private int pinCount;
+
     @ManyToOne(fetch = FetchType.LAZY) // FetchType.LAZY genellikle daha iyi
     @JoinColumn(name = "owner_id", nullable = true) //ullable = true
     private User owner;
@@ -0,0 +1,27 @@
+package com.ohmyimage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Silinip silinmeyeceğine ImageService'in süpürme işinin karar vereceği görsel.
+// Her yükleme ve her serbest bırakma satırı yazar ve eligibleAt'i bekleme süresi kadar ileri iter;
+// süpürme satırı kilitleyip görselin hâlâ bir pine bağlı olup olmadığına ancak bu zamandan sonra bakar.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_image_sweep_candidate_eligible_at", columnList = "eligibleAt") // Sırası gelen adaylar
+})
+public class ImageSweepCandidate {
+    @Id
+    @Column(length = 100)
+    private String imageKey;
+
+    @Column(nullable = false)
+    private LocalDateTime eligibleAt;
+}
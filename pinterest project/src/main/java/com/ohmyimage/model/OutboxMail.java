@@ -0,0 +1,55 @@
+package com.ohmyimage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Gönderilmeyi bekleyen e-posta; isteği yapan transaction içinde yazılır, MailDispatcher arka planda gönderir
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_outbox_mail_status_next_attempt", columnList = "status, nextAttemptAt") // Sırası gelen mailler
+})
+public class OutboxMail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_mail_seq")
+    @SequenceGenerator(name = "outbox_mail_seq", sequenceName = "outbox_mail_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Yapılan gönderim denemesi sayısı
+    @Column(nullable = false)
+    private int attempts;
+
+    // Bir sonraki denemenin en erken zamanı; alınan (claim) mailde kira süresinin sonu
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
@@ -2,8 +2,7 @@ package com.ohmyimage.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -15,9 +14,15 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_pin_image_sha256", columnList = "imageSha256"),
+        @Index(name = "idx_pin_created_at_id", columnList = "createdAt, id") // Ana sayfa akışı (keyset)
+})
 public class Pin {
+    // Pooled sequence: Hibernate 50 id'yi tek sorguyla ayırır, insert'ler JDBC batch olarak gönderilebilir
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pin_seq")
+    @SequenceGenerator(name = "pin_seq", sequenceName = "pin_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,10 +32,23 @@ public class Pin {
 
     private LocalDateTime createdAt;
 
-    @Lob
-    @JdbcTypeCode(SqlTypes.VARBINARY)
-    @Column(name = "image_data")
-    private byte[] imageData;
+    // Görselin içerik tipi (image/jpeg, image/png ...) - yüklemede tespit edilir
+    private String imageContentType;
+
+    // Görsel içeriğinin SHA-256 özeti - ETag, önbellek sürümü ve pin_image tablosundaki anahtar
+    @Column(length = 64)
+    private String imageSha256;
+
+    // Görselin byte cinsinden boyutu (içerik ayrı tabloda, bkz. PinImage)
+    private Long imageSize;
+
+    // Görselin piksel boyutları (küçük resim üretimi sırasında doldurulur, o zamana kadar null)
+    private Integer imageWidth;
+
+    private Integer imageHeight;
+
+    // Görselin son değiştirildiği zaman (Last-Modified başlığı için)
+    private LocalDateTime imageUpdatedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = true) // nullable = true
@@ -40,6 +58,23 @@ public class Pin {
     @JoinColumn(name = "board_id")
     private Board board;
 
+    // Yorum sayısı (sayaç); sadece CounterService'in toplu sorgularıyla değişir, entity kaydı bu sütuna yazmaz
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int commentCount;
+
+    // Yüklendiği/kaydedildiği andaki pano; pin başka panoya taşınırsa pano sayaçları buna göre düzeltilir
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Long savedBoardId;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberBoard() {
+        savedBoardId = board != null ? board.getId() : null;
+    }
+
     // Yyorumlar da silinmeli
     @OneToMany(mappedBy = "pin", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -0,0 +1,34 @@
+package com.ohmyimage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+// Pin görsellerinin ham içeriği. Pin tablosundan ayrı tutulur ki pin sorguları görsel byte'larını taşımasın.
+// İçerik adreslidir: anahtar görselin SHA-256 özetidir, aynı görsel bir kez saklanır.
+@Entity
+@Table(name = "pin_image")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PinImage {
+    @Id
+    @Column(length = 100)
+    private String imageKey;
+
+    private String contentType;
+
+    private long size;
+
+    @Lob
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+}
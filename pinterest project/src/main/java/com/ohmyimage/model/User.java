@@ -2,6 +2,8 @@ package com.ohmyimage.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,9 +15,12 @@ import java.util.stream.Collectors;
 @NoArgsConstructor @AllArgsConstructor // Lombok anotasyonları: Parametresiz ve tüm parametreleri olan constructor'lar oluşturur.
 @Builder // Lombok anotasyonu: Builder pattern'i kullanarak nesne oluşturmayı sağlar.
 @Table(name = "app_user") // Veritabanında 'app_user' adlı tabloya karşılık gelir.
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // İkinci seviye önbellekte tutulur (bkz. ehcache.xml).
 public class User implements UserDetails { // User sınıfı, Spring Security'nin UserDetails arayüzünü implement eder.
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) // 'id' alanı birincil anahtar olarak kullanılır ve otomatik artan bir değere sahiptir.
+    @Id // 'id' alanı birincil anahtar olarak kullanılır, değeri app_user_seq dizisinden (50'şer ayrılarak) gelir.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true) // 'username' alanı veritabanında null olamaz ve benzersiz olmalıdır.
@@ -33,6 +38,7 @@ public class User implements UserDetails { // User sınıfı, Spring Security'ni
             joinColumns = @JoinColumn(name = "user_id"), // Kullanıcıyı temsil eden sütun
             inverseJoinColumns = @JoinColumn(name = "role_id") // Roller tablosunu temsil eden sütun
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Rol id'leri de önbellekte; roller Role bölgesinden gelir.
     @Builder.Default // Eğer kullanıcı rolü eklenmezse boş bir Set döndürülmesini sağlar.
     private Set<Role> roles = new HashSet<>(); // Kullanıcının rollerini saklar.
 
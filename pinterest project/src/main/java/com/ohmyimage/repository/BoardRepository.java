@@ -1,15 +1,55 @@
 package com.ohmyimage.repository;
 
+import com.ohmyimage.dto.BoardSummary;
 import com.ohmyimage.model.Board;
 import com.ohmyimage.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BoardRepository extends JpaRepository<Board, Long> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Board> findByOwner(User user);
     boolean existsByNameAndOwner(String name, User owner);
+    Optional<Board> findFirstByNameAndOwner(String name, User owner);
 
-    // universal search için
-    List<Board> findByNameContainingIgnoreCase(String namePart);
-}
\ No newline at end of file
+    // Listeleme sayfaları için pano özetleri (sahip adı aynı sorguda join edilir)
+    String BOARD_SUMMARY = "select new com.ohmyimage.dto.BoardSummary(b.id, b.name, o.id, o.username, b.pinCount) " +
+            "from Board b left join b.owner o ";
+
+    @Query(BOARD_SUMMARY + "where b.id = :id")
+    Optional<BoardSummary> findSummaryById(@Param("id") Long id);
+
+    // Pin oluşturma/düzenleme ve pano sayfalarındaki pano listesi; sorgu önbelleğinden gelir
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query(BOARD_SUMMARY + "where o.id = :ownerId order by b.name")
+    List<BoardSummary> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(BOARD_SUMMARY + "order by b.name")
+    List<BoardSummary> findAllSummaries();
+
+    // universal search için (sıralama arama dizininden gelir)
+    @Query(BOARD_SUMMARY + "where b.id in :ids")
+    List<BoardSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Kullanıcı silinince panoları sahipsiz kalır (toplu)
+    @Modifying
+    @Query("update Board b set b.owner = null where b.owner.id in :userIds")
+    int detachFromOwners(@Param("userIds") Collection<Long> userIds);
+
+    // Sayaçların yeniden hesaplanması (bkz. CounterService.reconcile); toplu sorgu Board önbellek bölgesini temizler
+    @Modifying
+    @Query("update Board b set b.pinCount = (select count(p) from Pin p where p.board = b)")
+    int recountPins();
+
+    // Yetki kontrolleri için (bkz. OwnershipService)
+    @Query("select o.username from Board b join b.owner o where b.id = :id")
+    Optional<String> findOwnerUsernameById(@Param("id") Long id);
+}
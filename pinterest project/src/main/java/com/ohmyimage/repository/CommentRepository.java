@@ -1,13 +1,50 @@
 package com.ohmyimage.repository;
 
+import com.ohmyimage.dto.CommentView;
 import com.ohmyimage.model.Comment;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPin(Pin pin);
     List<Comment> findByUser(User user);
-}
\ No newline at end of file
+
+    // Pin sayfasındaki yorumlar: yazarın adı aynı sorguda join edilir, en yeniden eskiye keyset sayfalama
+    String COMMENT_VIEW = "select new com.ohmyimage.dto.CommentView(c.id, c.text, c.createdAt, u.id, u.username) " +
+            "from Comment c left join c.user u ";
+
+    @Query(COMMENT_VIEW + "where c.pin.id = :pinId order by c.createdAt desc, c.id desc")
+    List<CommentView> findFirstPageByPinId(@Param("pinId") Long pinId, Pageable pageable);
+
+    @Query(COMMENT_VIEW +
+            "where c.pin.id = :pinId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentView> findPageByPinIdBefore(@Param("pinId") Long pinId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    // Kullanıcı silinince yorumları "Silinmiş Kullanıcı" olarak kalır (toplu)
+    @Modifying
+    @Query("update Comment c set c.user = null where c.user.id in :userIds")
+    int detachFromUsers(@Param("userIds") Collection<Long> userIds);
+
+    // Silinen yorumun pini (sayaç güncellemesi için)
+    @Query("select c.pin.id from Comment c where c.id = :id")
+    Optional<Long> findPinIdById(@Param("id") Long id);
+
+    // Yetki kontrolleri için (bkz. OwnershipService)
+    @Query("select u.username from Comment c join c.user u where c.id = :id")
+    Optional<String> findAuthorUsernameById(@Param("id") Long id);
+}
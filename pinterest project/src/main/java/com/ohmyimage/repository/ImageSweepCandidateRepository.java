@@ -0,0 +1,29 @@
+package com.ohmyimage.repository;
+
+import com.ohmyimage.model.ImageSweepCandidate;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ImageSweepCandidateRepository extends JpaRepository<ImageSweepCandidate, String> {
+
+    // Var olan adayın süresini uzatır; satır süpürme tarafından kilitliyse süpürme bitene kadar bekler
+    @Modifying
+    @Query("update ImageSweepCandidate c set c.eligibleAt = :eligibleAt where c.imageKey = :key")
+    int postpone(@Param("key") String key, @Param("eligibleAt") LocalDateTime eligibleAt);
+
+    // Sırası gelen adaylar; başka bir süpürmenin kilitlediği satırlar atlanır (FOR UPDATE SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from ImageSweepCandidate c where c.eligibleAt <= :now order by c.eligibleAt")
+    List<ImageSweepCandidate> findDueForUpdate(@Param("now") LocalDateTime now, Pageable limit);
+}
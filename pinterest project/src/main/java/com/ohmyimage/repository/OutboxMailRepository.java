@@ -0,0 +1,39 @@
+package com.ohmyimage.repository;
+
+import com.ohmyimage.model.OutboxMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    // Sırası gelen (status = PENDING) mailler; başka bir dispatcher'ın kilitlediği satırlar atlanır (FOR UPDATE SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from OutboxMail m where m.status = :status " +
+            "and m.nextAttemptAt <= :now order by m.nextAttemptAt, m.id")
+    List<OutboxMail> findDueForUpdate(@Param("status") OutboxMail.Status status, @Param("now") LocalDateTime now,
+                                      Pageable limit);
+
+    // Gönderilen mailler; status olarak SENT verilir
+    @Modifying
+    @Query("update OutboxMail m set m.status = :status, m.sentAt = :now, m.lastError = null where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("status") OutboxMail.Status status,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update OutboxMail m set m.status = :status, m.lastError = :error, m.nextAttemptAt = :nextAttemptAt " +
+            "where m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") OutboxMail.Status status,
+                   @Param("error") String error, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -2,12 +2,31 @@ package com.ohmyimage.repository;
 
 import com.ohmyimage.model.PasswordResetToken;
 import com.ohmyimage.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
     List<PasswordResetToken> findByUser(User user);
+
+    // Kullanıcı silme (toplu)
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Süresi dolmuş token'lar, parça parça silmek için
+    @Query("select t.id from PasswordResetToken t where t.expiresAt <= :now order by t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable limit);
+
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.ohmyimage.repository;
+
+import com.ohmyimage.model.PinImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PinImageRepository extends JpaRepository<PinImage, String> {
+
+    @Query("select i.size from PinImage i where i.imageKey = :key")
+    Optional<Long> findSizeByKey(@Param("key") String key);
+
+    // Diskteki store'a aktarım (backfill) için tüm anahtarlar
+    @Query("select i.imageKey from PinImage i order by i.imageKey")
+    List<String> findAllKeys();
+
+    // Aynı içerik zaten varsa hiçbir şey yapmaz (eş zamanlı aynı yüklemelerde çakışma olmaz)
+    @Transactional
+    @Modifying
+    @Query(value = "insert into pin_image (image_key, content_type, size, data, created_at) " +
+            "values (:key, :contentType, :size, :data, :createdAt) on conflict (image_key) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key,
+                       @Param("contentType") String contentType,
+                       @Param("size") long size,
+                       @Param("data") byte[] data,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PinImage i where i.imageKey = :key")
+    int deleteByKey(@Param("key") String key);
+}
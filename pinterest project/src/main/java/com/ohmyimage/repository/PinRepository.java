@@ -1,14 +1,91 @@
 package com.ohmyimage.repository;
 
+import com.ohmyimage.dto.PinCard;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.Board;
 import com.ohmyimage.model.User; 
+import com.ohmyimage.search.SearchDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PinRepository extends JpaRepository<Pin, Long> {
-    List<Pin> findByTitleContainingIgnoreCase(String query);
     List<Pin> findByBoard(Board board);
     List<Pin> findByOwner(User owner);
-}
\ No newline at end of file
+
+    // Listeleme sayfaları için pin kartları: sadece kartta gereken sütunlar, sahip adı aynı sorguda join edilir
+    String PIN_CARD = "select new com.ohmyimage.dto.PinCard(p.id, p.title, p.imageSha256, p.createdAt, o.id, o.username, p.commentCount) " +
+            "from Pin p left join p.owner o ";
+
+    // Ana sayfa akışı: (createdAt, id) üzerinde keyset sayfalama
+    @Query(PIN_CARD + "order by p.createdAt desc, p.id desc")
+    List<PinCard> findFeedFirstPage(Pageable pageable);
+
+    @Query(PIN_CARD +
+            "where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PinCard> findFeedPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query(PIN_CARD + "where p.board.id = :boardId order by p.createdAt desc, p.id desc")
+    List<PinCard> findCardsByBoardId(@Param("boardId") Long boardId);
+
+    // Arama sonuçları (sıralama arama dizininden gelir)
+    @Query(PIN_CARD + "where p.id in :ids")
+    List<PinCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
+    // Arama dizininin açılışta kurulması için
+    @Query("select new com.ohmyimage.search.SearchDocument(p.id, p.title, p.description) from Pin p")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Yetki kontrolleri için (bkz. OwnershipService)
+    @Query("select o.username from Pin p join p.owner o where p.id = :id")
+    Optional<String> findOwnerUsernameById(@Param("id") Long id);
+
+    @Query("select p.board.id from Pin p where p.id = :id")
+    Optional<Long> findBoardIdById(@Param("id") Long id);
+
+    // Kullanıcı silinince pinleri sahipsiz kalır (toplu)
+    @Modifying
+    @Query("update Pin p set p.owner = null where p.owner.id in :userIds")
+    int detachFromOwners(@Param("userIds") Collection<Long> userIds);
+
+    // Sayaçlar (bkz. CounterService)
+    @Modifying
+    @Query("update Pin p set p.commentCount = p.commentCount + :delta where p.id = :id")
+    int addToCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update Pin p set p.commentCount = (select count(c) from Comment c where c.pin = p)")
+    int recountComments();
+
+    @Query("select p.id from Pin p where p.board.id = :boardId")
+    List<Long> findIdsByBoardId(@Param("boardId") Long boardId);
+
+    // Görsel anahtarları (pin_image temizliği için)
+    @Query("select p.imageSha256 from Pin p where p.id = :id")
+    Optional<String> findImageKeyById(@Param("id") Long id);
+
+    @Query("select p.imageSha256 from Pin p where p.board.id = :boardId and p.imageSha256 is not null")
+    List<String> findImageKeysByBoardId(@Param("boardId") Long boardId);
+
+    // Türev üretimi sırasında görselin gerçek boyutları, aynı görseli kullanan tüm pinlere yazılır
+    @Transactional
+    @Modifying
+    @Query("update Pin p set p.imageWidth = :width, p.imageHeight = :height where p.imageSha256 = :key")
+    int updateImageDimensions(@Param("key") String key, @Param("width") int width, @Param("height") int height);
+
+    // Verilen anahtarlardan hâlâ en az bir pin tarafından kullanılanlar
+    @Query("select distinct p.imageSha256 from Pin p where p.imageSha256 in :keys")
+    List<String> findReferencedImageKeys(@Param("keys") Collection<String> keys);
+}
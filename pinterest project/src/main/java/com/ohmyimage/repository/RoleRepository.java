@@ -1,10 +1,14 @@
 package com.ohmyimage.repository;
 
 import com.ohmyimage.model.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Her kayıtta/OAuth2 girişinde çağrılır; sonuç sorgu önbelleğinden gelir
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Role> findByName(String name);
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.ohmyimage.repository;
 
+import com.ohmyimage.dto.UserSummary;
 import com.ohmyimage.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +16,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
 
-    // universal search için
-    List<User> findByUsernameContainingIgnoreCase(String usernamePart);
-}
\ No newline at end of file
+    // Listeleme sayfaları için kullanıcı özetleri (EAGER roller yüklenmez)
+    String USER_SUMMARY = "select new com.ohmyimage.dto.UserSummary(u.id, u.username, u.email) from User u ";
+
+    @Query(USER_SUMMARY + "where u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+
+    @Query(USER_SUMMARY + "order by u.id")
+    List<UserSummary> findAllSummaries();
+
+    // universal search için (sıralama arama dizininden gelir)
+    @Query(USER_SUMMARY + "where u.id in :ids")
+    List<UserSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Kullanıcı silme (toplu); user_roles bağlantı tablosu JPQL ile silinemediği için native sorgu
+    @Modifying
+    @Query(value = "delete from user_roles where user_id in (:userIds)", nativeQuery = true)
+    int deleteRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Persistence context'teki eski User kopyaları temizlenir
+    @Modifying(clearAutomatically = true)
+    @Query("delete from User u where u.id in :userIds")
+    int deleteByIdIn(@Param("userIds") Collection<Long> userIds);
+}
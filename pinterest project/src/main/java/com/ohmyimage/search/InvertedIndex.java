@@ -0,0 +1,169 @@
+package com.ohmyimage.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Bellek içi ters dizin (terim -> {kayıt id -> terim frekansı}) ve BM25 sıralaması.
+// Okumalar eş zamanlı yapılabilir; ekleme/silme yazma kilidi altında yapılır.
+public class InvertedIndex {
+
+    // BM25 parametreleri (yaygın varsayılanlar)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Başlıktaki terimler gövdedeki terimlerden bu kadar kat ağır sayılır
+    private static final int TITLE_WEIGHT = 2;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Kaydı dizine ekler; aynı id daha önce eklendiyse eski terimleri değiştirilir
+     */
+    public void put(SearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(document.title())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.analyze(document.body())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), tf));
+            documents.put(document.id(), frequencies);
+            lengths.put(document.id(), length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorguyu BM25 ile puanlar ve istenen sayfadaki kayıt id'lerini döndürür.
+     * Tüm sonuçlar sıralanmaz; sadece offset + limit kadar en iyi sonuç bir heap'te tutulur.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new SearchHits(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, tf) -> {
+                    double norm = K1 * (1 - B + B * lengths.get(id) / averageLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+            return new SearchHits(top(scores, offset, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, int offset, int limit) {
+        if (offset < 0 || offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        int keep = (int) Math.min((long) offset + limit, scores.size());
+        // Eşit puanlarda yeni kayıt (büyük id) önce gelir
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(keep + 1, ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > keep) {
+                best.poll();
+            }
+        }
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().getKey());
+        }
+        List<Long> page = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = ranked.size() - 1 - offset; i >= 0 && page.size() < limit; i--) {
+            page.add(ranked.get(i));
+        }
+        return page;
+    }
+
+    private void removeLocked(Long id) {
+        Map<String, Integer> frequencies = documents.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+        for (String term : frequencies.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = lengths.remove(id);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+}
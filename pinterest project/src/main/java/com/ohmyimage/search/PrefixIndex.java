@@ -0,0 +1,128 @@
+package com.ohmyimage.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Öneriler (typeahead) için sıralı önek dizini. Her kayıt, etiketinin her kelimesinden başlayan bir anahtarla
+// saklanır ("Sevimli kedi" hem "sev" hem "ked" ile bulunur). Arama, sıralı haritada önekten itibaren
+// ilerleyip ilk eşleşmeleri toplamaktan ibarettir; veritabanına gidilmez.
+// Bellek, toplam anahtar sayısı ve etiket uzunluğu ile sınırlandırılır.
+public class PrefixIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefixIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Anahtarın metin kısmını kayıt kimliğinden ayırır; metinde bulunamayacak bir karakterdir
+    private static final char SEPARATOR = '\u0000';
+
+    private static final int MAX_LABEL_LENGTH = 80;
+    private static final int MAX_WORDS_PER_LABEL = 6;
+
+    private final ConcurrentSkipListMap<String, Suggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> keysByRecord = new ConcurrentHashMap<>();
+    private final AtomicInteger entryCount = new AtomicInteger();
+    private final int maxEntries;
+    private volatile boolean fullWarned;
+
+    public PrefixIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Kaydı ekler veya etiketini günceller. Dizin dolduysa yeni kayıt eklenmez (mevcut kayıtlar korunur).
+     */
+    public void put(String type, Long id, String label) {
+        if (label == null || label.isBlank()) {
+            remove(type, id);
+            return;
+        }
+        String shortLabel = label.length() > MAX_LABEL_LENGTH ? label.substring(0, MAX_LABEL_LENGTH) : label;
+        Suggestion suggestion = new Suggestion(type, id, shortLabel);
+        List<String> keys = keysFor(suggestion);
+        keysByRecord.compute(recordKey(type, id), (recordKey, previous) -> {
+            if (previous != null) {
+                previous.forEach(entries::remove);
+                entryCount.addAndGet(-previous.size());
+            }
+            if (entryCount.get() + keys.size() > maxEntries) {
+                if (!fullWarned) {
+                    fullWarned = true;
+                    logger.warn("Suggestion index is full ({} entries), new labels are not suggested", maxEntries);
+                }
+                return null;
+            }
+            keys.forEach(key -> entries.put(key, suggestion));
+            entryCount.addAndGet(keys.size());
+            return keys;
+        });
+    }
+
+    public void remove(String type, Long id) {
+        keysByRecord.computeIfPresent(recordKey(type, id), (recordKey, previous) -> {
+            previous.forEach(entries::remove);
+            entryCount.addAndGet(-previous.size());
+            return null;
+        });
+    }
+
+    public void clear() {
+        keysByRecord.clear();
+        entries.clear();
+        entryCount.set(0);
+        fullWarned = false;
+    }
+
+    public int size() {
+        return entryCount.get();
+    }
+
+    /**
+     * Öneki içeren ilk kayıtları alfabetik sırayla döndürür (her kayıt bir kez)
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Suggestion> found = new LinkedHashMap<>();
+        for (Map.Entry<String, Suggestion> entry : entries.tailMap(normalized).entrySet()) {
+            if (!entry.getKey().startsWith(normalized) || found.size() >= limit) {
+                break;
+            }
+            Suggestion suggestion = entry.getValue();
+            found.putIfAbsent(recordKey(suggestion.type(), suggestion.id()), suggestion);
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private static List<String> keysFor(Suggestion suggestion) {
+        String text = normalize(suggestion.label());
+        String owner = SEPARATOR + recordKey(suggestion.type(), suggestion.id());
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start >= 0 && keys.size() < MAX_WORDS_PER_LABEL) {
+            keys.add(text.substring(start) + owner + SEPARATOR + keys.size());
+            int space = text.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return NON_WORD.matcher(TextAnalyzer.fold(text)).replaceAll(" ").strip();
+    }
+
+    private static String recordKey(String type, Long id) {
+        return type + ":" + id;
+    }
+}
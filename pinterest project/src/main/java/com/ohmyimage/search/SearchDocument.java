@@ -0,0 +1,5 @@
+package com.ohmyimage.search;
+
+// Dizine eklenecek kayıt: başlık gövdeden daha ağır basar (bkz. InvertedIndex.put)
+public record SearchDocument(Long id, String title, String body) {
+}
@@ -0,0 +1,7 @@
+package com.ohmyimage.search;
+
+import java.util.List;
+
+// Bir arama sayfasının sonuçları: ilgililiğe göre sıralı kayıt id'leri ve eşleşen toplam kayıt sayısı
+public record SearchHits(List<Long> ids, int total) {
+}
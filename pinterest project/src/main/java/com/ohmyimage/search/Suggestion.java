@@ -0,0 +1,5 @@
+package com.ohmyimage.search;
+
+// Arama kutusunda gösterilen öneri: type "user", "board" veya "pin"
+public record Suggestion(String type, Long id, String label) {
+}
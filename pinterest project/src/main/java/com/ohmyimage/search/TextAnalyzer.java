@@ -0,0 +1,171 @@
+package com.ohmyimage.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Arama için metni terimlere ayırır: küçük harf + Türkçe karakter katlama, durak kelimeleri atma ve hafif kök bulma.
+// Dizine eklenen metin ve arama sorgusu aynı analizden geçtiği için "Kediler" araması "kedi" başlıklı pini bulur.
+public final class TextAnalyzer {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // Kökün en az bu kadar harfi kalmalı (aksi halde "ders" -> "de" gibi anlamsız kökler oluşur)
+    private static final int MIN_STEM_LENGTH = 3;
+
+    // İki harfli ekler kelime sonunda tesadüfen de bulunur ("pasta", "tente"); bunlardan sonra kök daha uzun kalmalı
+    private static final int MIN_STEM_LENGTH_SHORT_SUFFIX = 4;
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    // Türkçe ekler, kelimedeki sıralarının tersine gruplar halinde: önce hal, sonra iyelik, sonra çoğul eki.
+    // Her gruptan en fazla bir ek atılır ("kedilerinde" -> "kedileri" -> "kedi"). Katlamadan önceki harflerle
+    // yazılır çünkü ünlü uyumu kontrolü ı/i ve o/ö farkına bakar (bkz. harmonizes).
+    private static final List<List<String>> TURKISH_SUFFIX_GROUPS = List.of(
+            List.of("ndan", "nden", "nın", "nin", "nun", "nün", "dan", "den", "tan", "ten", "nda", "nde", "yla", "yle",
+                    "da", "de", "ta", "te", "ya", "ye", "yı", "yi", "yu", "yü"),
+            List.of("sı", "si", "su", "sü"),
+            List.of("ların", "lerin", "ları", "leri", "lar", "ler"));
+
+    // Ünlüyle biten köke eklenen (kaynaştırma harfli) ekler
+    private static final Set<String> AFTER_VOWEL = Set.of(
+            "ndan", "nden", "nın", "nin", "nun", "nün", "nda", "nde", "yla", "yle",
+            "ya", "ye", "yı", "yi", "yu", "yü", "sı", "si", "su", "sü");
+
+    private static final String VOWELS = "aeıioöuü";
+    private static final String FRONT_VOWELS = "eiöü";
+    private static final String ROUNDED_VOWELS = "oöuü";
+    private static final String VOICELESS_CONSONANTS = "çfhkpsşt";
+    private static final Pattern TURKISH_LETTERS = Pattern.compile("[çğıöşüÇĞİÖŞÜ]");
+
+    // İngilizce ekler; sadece Türkçe harf içermeyen ve Türkçe eki olmayan kelimelere, en fazla biri uygulanır
+    private static final String[] ENGLISH_SUFFIXES = {"ings", "ing", "ed"};
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "ve", "ile", "bir", "bu", "su", "icin", "gibi", "ama", "veya", "mi", "da", "de",
+            "the", "and", "or", "of", "a", "an", "to", "in", "on", "for", "with", "is", "are", "at", "by");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Metni dizinlenebilir terimlere ayırır (sıra korunur, tekrarlar kalır)
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (token.isEmpty() || STOP_WORDS.contains(fold(token))) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Büyük/küçük harf ve aksan farklarını kaldırır: "İstanbul'da Çiçekler" -> "istanbul'da cicekler".
+     * Türkçe klavyesi olmayan kullanıcılar da aynı sonuçları bulur.
+     */
+    public static String fold(String text) {
+        String lower = text.replace('İ', 'i').replace('I', 'i').replace('ı', 'i').toLowerCase(Locale.ROOT);
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    // Kelimenin katlanmış kökü. Türkçe kurallar Türkçe küçük harfle (I -> ı) uygulanır; Türkçe ek bulunamazsa
+    // ve kelime Türkçe harf içermiyorsa İngilizce kurallar katlanmış hale uygulanır ("PAINTING" -> "paint").
+    static String stem(String word) {
+        String lower = word.toLowerCase(TURKISH);
+        String stem = stemTurkish(lower);
+        if (!stem.equals(lower)) {
+            return fold(stem);
+        }
+        if (TURKISH_LETTERS.matcher(word).find()) {
+            return fold(lower);
+        }
+        return stemEnglish(fold(word));
+    }
+
+    private static String stemTurkish(String token) {
+        String stem = token;
+        for (List<String> group : TURKISH_SUFFIX_GROUPS) {
+            for (String suffix : group) {
+                if (canStripTurkish(stem, suffix)) {
+                    stem = stem.substring(0, stem.length() - suffix.length());
+                    break;
+                }
+            }
+        }
+        return stem;
+    }
+
+    private static boolean canStripTurkish(String word, String suffix) {
+        if (!word.endsWith(suffix)) {
+            return false;
+        }
+        String stem = word.substring(0, word.length() - suffix.length());
+        int minLength = suffix.length() <= 2 ? MIN_STEM_LENGTH_SHORT_SUFFIX : MIN_STEM_LENGTH;
+        if (stem.length() < minLength) {
+            return false;
+        }
+        char last = stem.charAt(stem.length() - 1);
+        if (AFTER_VOWEL.contains(suffix) && VOWELS.indexOf(last) < 0) {
+            return false;
+        }
+        // Sertleşme: d'li ekler sert ünsüzden sonra t ile başlar ("kitapta", "evde")
+        char first = suffix.charAt(0);
+        if (first == 'd' && VOICELESS_CONSONANTS.indexOf(last) >= 0
+                || first == 't' && VOICELESS_CONSONANTS.indexOf(last) < 0) {
+            return false;
+        }
+        return harmonizes(stem, suffix);
+    }
+
+    // Büyük ve küçük ünlü uyumu: ekin ünlüsü kökün son ünlüsüne uymalı ("golden" -> "gol" + "den" olmaz)
+    private static boolean harmonizes(String stem, String suffix) {
+        char stemVowel = lastVowel(stem);
+        char suffixVowel = lastVowel(suffix);
+        if (stemVowel == 0 || suffixVowel == 0) {
+            return false;
+        }
+        boolean front = FRONT_VOWELS.indexOf(stemVowel) >= 0;
+        if (suffixVowel == 'a' || suffixVowel == 'e') {
+            return front == (suffixVowel == 'e');
+        }
+        boolean rounded = ROUNDED_VOWELS.indexOf(stemVowel) >= 0;
+        char expected = front ? (rounded ? 'ü' : 'i') : (rounded ? 'u' : 'ı');
+        return suffixVowel == expected;
+    }
+
+    private static char lastVowel(String text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (VOWELS.indexOf(text.charAt(i)) >= 0) {
+                return text.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    // "puppies" -> "puppy", "paintings" -> "paint", "paints" -> "paint"; kısa kelimelere dokunulmaz ("ders", "red")
+    private static String stemEnglish(String token) {
+        if (token.endsWith("ies") && token.length() - 3 >= MIN_STEM_LENGTH) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        for (String suffix : ENGLISH_SUFFIXES) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= MIN_STEM_LENGTH_SHORT_SUFFIX) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")
+                && token.length() - 1 >= MIN_STEM_LENGTH_SHORT_SUFFIX) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
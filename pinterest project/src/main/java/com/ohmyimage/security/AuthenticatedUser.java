@@ -0,0 +1,22 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.model.Role;
+import com.ohmyimage.model.User;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Giriş yapmış kullanıcının değişmez kopyası (id, ad, e-posta, rol adları). İstekler ve thread'ler arasında
+// önbellekten paylaşılır; entity gerekiyorsa (ör. yeni kaydın sahibi) id ile yeniden yüklenir.
+public record AuthenticatedUser(Long id, String username, String email, Set<String> roles) {
+
+    // Roller yüklü olmalıdır (açık bir session içinde çağrılır)
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getEmail(),
+                user.getRoles().stream().map(Role::getName).collect(Collectors.toUnmodifiableSet()));
+    }
+
+    public boolean isAdmin() {
+        return roles.contains("ROLE_ADMIN");
+    }
+}
@@ -0,0 +1,16 @@
+package com.ohmyimage.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Controller parametresine giriş yapmış kullanıcıyı enjekte eder; giriş yapılmamışsa null gelir.
+// Sadece okunacaksa AuthenticatedUser (önbellekteki değişmez kopya), entity gerekiyorsa User (yeniden yüklenir) kullanılır.
+// Form login ve OAuth2 girişleri aynı şekilde çözülür (bkz. CurrentUserArgumentResolver).
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,58 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.model.User;
+import com.ohmyimage.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.Optional;
+
+// @CurrentUser parametrelerini çözer. Kullanıcının kopyası (AuthenticatedUser) istek başına bir kez bulunur
+// (request attribute'ta tutulur), istekler arasında ise UserService'in kısa süreli önbelleğinden gelir.
+// Parametre User ise entity bu isteğin persistence context'ine id ile yeniden yüklenir; önbellekteki nesne
+// istekler arasında paylaşılmaz.
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+    private static final String ENTITY_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".entity";
+
+    @Autowired
+    private UserService userService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (AuthenticatedUser.class.equals(type) || User.class.equals(type));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Optional<AuthenticatedUser> resolved =
+                (Optional<AuthenticatedUser>) webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null) {
+            resolved = Optional.ofNullable(
+                    userService.findCurrentUser(SecurityContextHolder.getContext().getAuthentication()));
+            webRequest.setAttribute(REQUEST_ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (!User.class.equals(parameter.getParameterType())) {
+            return resolved.orElse(null);
+        }
+        Optional<User> entity = (Optional<User>) webRequest.getAttribute(ENTITY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entity == null) {
+            entity = resolved.flatMap(user -> userService.findById(user.id()));
+            webRequest.setAttribute(ENTITY_ATTRIBUTE, entity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entity.orElse(null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.CommentRepository;
+import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.util.AfterCommit;
+import com.ohmyimage.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+// @PreAuthorize ifadelerindeki sahiplik kontrolleri, ör: @ownership.ownsPin(#id, authentication.name).
+// Entity yüklenmez; sahibin kullanıcı adı tek sütunluk sorguyla okunur ve kısa süre önbellekte tutulur.
+// Sahiplik sadece silmede (veya kullanıcı silinince) değiştiği için önbellek bu yazmalardan sonra temizlenir.
+@Component("ownership")
+public class OwnershipService {
+
+    @Autowired private PinRepository pinRepository;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private CommentRepository commentRepository;
+
+    @Value("${ohmyimage.security.ownership-cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${ohmyimage.security.ownership-cache-ttl:5m}")
+    private Duration cacheTtl;
+
+    // "pin:12" -> sahibin kullanıcı adı; sahibi olmayan kayıtlar önbelleğe alınmaz
+    private ExpiringCache<String, String> owners;
+
+    @PostConstruct
+    void createCache() {
+        owners = new ExpiringCache<>(cacheSize, cacheTtl);
+    }
+
+    public boolean ownsPin(Long pinId, String username) {
+        return owns("pin:", pinId, username, pinRepository::findOwnerUsernameById);
+    }
+
+    public boolean ownsBoard(Long boardId, String username) {
+        return owns("board:", boardId, username, boardRepository::findOwnerUsernameById);
+    }
+
+    public boolean ownsComment(Long commentId, String username) {
+        return owns("comment:", commentId, username, commentRepository::findAuthorUsernameById);
+    }
+
+    // Aşağıdakiler transaction commit edildikten sonra uygulanır
+
+    public void evictPins(Collection<Long> pinIds) {
+        AfterCommit.run(() -> pinIds.forEach(id -> owners.invalidate("pin:" + id)));
+    }
+
+    public void evictBoard(Long boardId) {
+        AfterCommit.run(() -> owners.invalidate("board:" + boardId));
+    }
+
+    public void evictComment(Long commentId) {
+        AfterCommit.run(() -> owners.invalidate("comment:" + commentId));
+    }
+
+    // Kullanıcı silindiğinde tüm kayıtlarının sahipliği kalkar
+    public void evictAll() {
+        AfterCommit.run(owners::clear);
+    }
+
+    private boolean owns(String prefix, Long id, String username, Function<Long, Optional<String>> query) {
+        if (id == null || username == null) {
+            return false;
+        }
+        String owner = owners.get(prefix + id, key -> query.apply(id).orElse(null));
+        return username.equals(owner);
+    }
+}
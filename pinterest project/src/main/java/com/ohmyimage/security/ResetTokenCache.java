@@ -0,0 +1,72 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.repository.PasswordResetTokenRepository;
+import com.ohmyimage.util.AfterCommit;
+import com.ohmyimage.util.ExpiryOrderedCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+// Şifre sıfırlama token'larının önbelleği: sıfırlama sayfası her açıldığında veritabanına gidilmez.
+// Kayıt, token'ın expiresAt zamanı geçtiği anda düşer. Token silinince veya değişince
+// önbellek transaction commit edildikten sonra güncellenir.
+@Component
+public class ResetTokenCache {
+
+    // Token'ın sahibi ve bitiş zamanı; entity değil, değişmez bir kopya
+    public record ResetToken(Long userId, LocalDateTime expiresAt) {
+    }
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Value("${ohmyimage.reset-tokens.cache-size:10000}")
+    private int cacheSize;
+
+    private ExpiryOrderedCache<String, ResetToken> tokens;
+
+    @PostConstruct
+    void createCache() {
+        tokens = new ExpiryOrderedCache<>(cacheSize, ResetToken::expiresAt);
+    }
+
+    // Süresi dolmamış token; önbellekte yoksa veritabanından okunur
+    public Optional<ResetToken> find(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tokens.get(token, key -> tokenRepository.findByToken(key)
+                .filter(prt -> prt.getUser() != null && prt.getExpiresAt() != null)
+                .map(prt -> new ResetToken(prt.getUser().getId(), prt.getExpiresAt()))
+                .orElse(null)));
+    }
+
+    // Aşağıdakiler transaction commit edildikten sonra uygulanır
+
+    // Yeni token; kullanıcının önceki token'ları silindiği için önbellekten de düşer
+    public void replaceUserTokens(String token, Long userId, LocalDateTime expiresAt) {
+        AfterCommit.run(() -> {
+            tokens.invalidateIf(entry -> entry.userId().equals(userId));
+            tokens.put(token, new ResetToken(userId, expiresAt));
+        });
+    }
+
+    public void evictToken(String token) {
+        AfterCommit.run(() -> tokens.invalidate(token));
+    }
+
+    public void evictUsers(Collection<Long> userIds) {
+        Set<Long> ids = Set.copyOf(userIds);
+        AfterCommit.run(() -> tokens.invalidateIf(entry -> ids.contains(entry.userId())));
+    }
+
+    public int purgeExpired() {
+        return tokens.purgeExpired();
+    }
+}
@@ -0,0 +1,66 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.util.AfterCommit;
+import com.ohmyimage.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+// DaoAuthenticationProvider'ın kullanıcı önbelleği: tekrarlanan girişlerde kullanıcı ve rolleri sorgulanmaz.
+// Önbellekteki kopyayla parola tutmazsa provider kullanıcıyı veritabanından yeniden okur.
+// Parola, rol değişikliği veya silmede kullanıcı commit sonrası önbellekten düşer.
+@Component
+public class UserDetailsCache implements UserCache {
+
+    @Value("${ohmyimage.security.user-details-cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${ohmyimage.security.user-details-cache-ttl:5m}")
+    private Duration cacheTtl;
+
+    private ExpiringCache<String, UserPrincipal> principals;
+
+    @PostConstruct
+    void createCache() {
+        principals = new ExpiringCache<>(cacheSize, cacheTtl);
+    }
+
+    // UserPrincipal.of'a verilecek sürüm; kullanıcı okunmadan önce alınmalıdır
+    public long generation() {
+        return principals.generation();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return principals.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (user instanceof UserPrincipal principal) {
+            principals.put(principal.getUsername(), principal, principal.getCacheGeneration());
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        principals.invalidate(username);
+    }
+
+    // Aşağıdakiler transaction commit edildikten sonra uygulanır
+
+    public void evictUser(Long userId) {
+        AfterCommit.run(() -> principals.invalidateIf(principal -> principal.getId().equals(userId)));
+    }
+
+    public void evictUsers(Collection<Long> userIds) {
+        Set<Long> ids = Set.copyOf(userIds);
+        AfterCommit.run(() -> principals.invalidateIf(principal -> ids.contains(principal.getId())));
+    }
+}
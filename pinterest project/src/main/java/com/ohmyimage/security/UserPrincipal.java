@@ -0,0 +1,87 @@
+package com.ohmyimage.security;
+
+import com.ohmyimage.model.Role;
+import com.ohmyimage.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Form login'de oturuma konan kullanıcı: entity değil, giriş anındaki değişmez kopya.
+// Önbellekte (UserDetailsCache) paylaşıldığı için CredentialsContainer değildir; parola özeti silinmez.
+public final class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+
+    // Kopyanın alındığı andaki önbellek sürümü; arada geçersiz kılınan kopya önbelleğe yazılmaz
+    private final transient long cacheGeneration;
+
+    private UserPrincipal(Long id, String username, String password, List<GrantedAuthority> authorities,
+                          long cacheGeneration) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities;
+        this.cacheGeneration = cacheGeneration;
+    }
+
+    // cacheGeneration kullanıcı veritabanından okunmadan önce alınmalıdır (bkz. UserDetailsCache.generation)
+    public static UserPrincipal of(User user, long cacheGeneration) {
+        List<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(Role::getName)
+                .map(SimpleGrantedAuthority::new)
+                .map(GrantedAuthority.class::cast)
+                .toList();
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), authorities, cacheGeneration);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    long getCacheGeneration() {
+        return cacheGeneration;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override public boolean isAccountNonExpired()    { return true; }
+    @Override public boolean isAccountNonLocked()     { return true; }
+    @Override public boolean isCredentialsNonExpired() { return true; }
+    @Override public boolean isEnabled()              { return true; }
+
+    // Oturum kaydı için kimlik yeterli (SessionRegistry vb.)
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof UserPrincipal principal && Objects.equals(username, principal.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[id=" + id + ", username=" + username + ", authorities=" + authorities + "]";
+    }
+}
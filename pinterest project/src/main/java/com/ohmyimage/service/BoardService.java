@@ -1,10 +1,15 @@
 package com.ohmyimage.service;
 
+import com.ohmyimage.dto.BoardSummary;
 import com.ohmyimage.model.Board;
 import com.ohmyimage.model.User;
 import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.security.OwnershipService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -14,32 +19,66 @@ public class BoardService {
     @Autowired
     private BoardRepository boardRepository;
 
+    @Autowired
+    private PinRepository pinRepository;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private OwnershipService ownershipService;
+
+    @Transactional
     public Board save(Board board) {
-        return boardRepository.save(board);
+        Board saved = boardRepository.save(board);
+        searchService.indexBoard(saved);
+        return saved;
     }
 
-    public List<Board> findByOwner(User user) {
-        return boardRepository.findByOwner(user);
+    // Listeleme sayfaları entity yerine özet döndürür (bkz. BoardSummary)
+    @Transactional(readOnly = true)
+    public List<BoardSummary> findByOwner(Long ownerId) {
+        return boardRepository.findSummariesByOwnerId(ownerId);
     }
 
     public Optional<Board> findById(Long id) {
         return boardRepository.findById(id);
     }
 
-    public List<Board> findAll() {
-        return boardRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<BoardSummary> findSummaryById(Long id) {
+        return boardRepository.findSummaryById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BoardSummary> findAll() {
+        return boardRepository.findAllSummaries();
     }
 
+    @Transactional
     public void deleteById(Long id) {
+        // Pano ile birlikte silinecek pinlerin görselleri, başka pin kullanmıyorsa temizlenir
+        List<String> imageKeys = pinRepository.findImageKeysByBoardId(id);
+        List<Long> pinIds = pinRepository.findIdsByBoardId(id);
         boardRepository.deleteById(id);
+        imageService.releaseUnreferenced(imageKeys);
+        searchService.removePins(pinIds);
+        searchService.removeBoard(id);
+        ownershipService.evictPins(pinIds);
+        ownershipService.evictBoard(id);
     }
 
-    public boolean existsByNameAndOwner(String name, User owner) {
-        return boardRepository.existsByNameAndOwner(name, owner);
+    // Kullanıcının bu isimdeki panosu, yoksa yeni oluşturulur (toplu içe aktarma)
+    @Transactional
+    public Board findOrCreate(String name, User owner) {
+        return boardRepository.findFirstByNameAndOwner(name, owner)
+                .orElseGet(() -> save(Board.builder().name(name).owner(owner).build()));
     }
 
-    // universal search için eklendi
-    public List<Board> searchByName(String namePart) {
-        return boardRepository.findByNameContainingIgnoreCase(namePart);
+    public boolean existsByNameAndOwner(String name, User owner) {
+        return boardRepository.existsByNameAndOwner(name, owner);
     }
 }
\ No newline at end of file
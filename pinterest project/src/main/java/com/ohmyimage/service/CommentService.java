@@ -1,10 +1,15 @@
 package com.ohmyimage.service;
 
+import com.ohmyimage.dto.CommentView;
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.KeysetPage;
 import com.ohmyimage.model.Comment;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.model.User;
 import com.ohmyimage.repository.CommentRepository;
+import com.ohmyimage.security.OwnershipService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,13 +18,26 @@ import java.util.Optional;
 
 @Service
 public class CommentService {
+    // Pin sayfasında bir seferde gösterilen yorum sayısı
+    public static final int PAGE_SIZE = 20;
 
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private OwnershipService ownershipService;
+
+    @Autowired
+    private CounterService counterService;
+
     @Transactional
     public Comment save(Comment comment) {
-        return commentRepository.save(comment);
+        boolean isNew = comment.getId() == null;
+        Comment saved = commentRepository.save(comment);
+        if (isNew) {
+            counterService.commentAdded(saved.getPin().getId());
+        }
+        return saved;
     }
 
     // DELETE yetki kontrolü için gerekli:
@@ -27,6 +45,22 @@ public class CommentService {
         return commentRepository.findById(id);
     }
 
+    // Pinin yorumlarından bir sayfa, en yeniden eskiye; cursor null ise ilk sayfa.
+    // Bir fazla kayıt çekilerek sonraki sayfanın olup olmadığı anlaşılır (count sorgusu yok).
+    @Transactional(readOnly = true)
+    public KeysetPage<CommentView> findPage(Long pinId, KeysetCursor cursor) {
+        PageRequest limit = PageRequest.of(0, PAGE_SIZE + 1);
+        List<CommentView> comments = cursor == null
+                ? commentRepository.findFirstPageByPinId(pinId, limit)
+                : commentRepository.findPageByPinIdBefore(pinId, cursor.createdAt(), cursor.id(), limit);
+        if (comments.size() <= PAGE_SIZE) {
+            return new KeysetPage<>(comments, null);
+        }
+        List<CommentView> page = comments.subList(0, PAGE_SIZE);
+        CommentView last = page.get(page.size() - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.createdAt(), last.id()));
+    }
+
     public List<Comment> findByPin(Pin pin) {
         return commentRepository.findByPin(pin);
     }
@@ -37,6 +71,9 @@ public class CommentService {
 
     @Transactional
     public void deleteById(Long id) {
+        Optional<Long> pinId = commentRepository.findPinIdById(id);
         commentRepository.deleteById(id);
+        pinId.ifPresent(counterService::commentRemoved);
+        ownershipService.evictComment(id);
     }
 }
\ No newline at end of file
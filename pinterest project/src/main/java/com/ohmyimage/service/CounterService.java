@@ -0,0 +1,94 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.PinRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Pin başına yorum sayısı ve pano başına pin sayısı sayaçları.
+// Sayaçlar yazan işlemin transaction'ı içinde güncellenir. Yorum sayısı tek bir "sayac = sayac + n" sorgusuyla,
+// pin sayısı ise kilitlenip yeniden okunan Board entity'si üzerinden: Board ikinci seviye önbellekte olduğundan
+// toplu sorgu bütün bölgeyi temizlerdi, entity güncellemesi sadece o panonun kaydını geçersiz kılar.
+// İki yolda da eş zamanlı yazmalarda kayıp olmaz. Listeleme sayfaları sayıları ek sorgu olmadan okur.
+// Sayaçlar bir şekilde kayarsa (elle yapılan veritabanı değişikliği vb.) admin reconcile() ile yeniden hesaplatır.
+@Service
+public class CounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterService.class);
+
+    @Autowired private PinRepository pinRepository;
+    @Autowired private BoardRepository boardRepository;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Transactional
+    public void commentAdded(Long pinId) {
+        pinRepository.addToCommentCount(pinId, 1);
+    }
+
+    @Transactional
+    public void commentRemoved(Long pinId) {
+        pinRepository.addToCommentCount(pinId, -1);
+    }
+
+    // Yeni pinde previousBoardId null, silinen pinde boardId null verilir
+    @Transactional
+    public void pinMoved(Long previousBoardId, Long boardId) {
+        if (Objects.equals(previousBoardId, boardId)) {
+            return;
+        }
+        Map<Long, Integer> moved = new TreeMap<>();
+        if (previousBoardId != null) {
+            moved.put(previousBoardId, -1);
+        }
+        if (boardId != null) {
+            moved.put(boardId, 1);
+        }
+        addToPinCounts(moved);
+    }
+
+    // Toplu eklemede pin başına değil pano başına tek güncelleme yapılır
+    @Transactional
+    public void pinsAdded(Collection<Long> boardIds) {
+        Map<Long, Integer> added = new TreeMap<>();
+        for (Long boardId : boardIds) {
+            if (boardId != null) {
+                added.merge(boardId, 1, Integer::sum);
+            }
+        }
+        addToPinCounts(added);
+    }
+
+    // Panolar id sırasıyla kilitlenir (eş zamanlı taşımalar birbirini kilitlemesin). Bağlamdaki veya önbellekteki
+    // sayı eski olabileceğinden satır kilitlenirken yeniden okunur; güncelleme flush'ta entity üzerinden gider.
+    private void addToPinCounts(Map<Long, Integer> deltas) {
+        deltas.forEach((boardId, delta) -> {
+            Board board = entityManager.getReference(Board.class, boardId);
+            entityManager.refresh(board, LockModeType.PESSIMISTIC_WRITE);
+            board.setPinCount(board.getPinCount() + delta);
+        });
+    }
+
+    /**
+     * Tüm sayaçları tablolardan yeniden hesaplar (admin panelinden tetiklenir)
+     */
+    @Transactional
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int pins = pinRepository.recountComments();
+        int boards = boardRepository.recountPins();
+        logger.info("Counters reconciled for {} pins and {} boards in {} ms",
+                pins, boards, System.currentTimeMillis() - start);
+    }
+}
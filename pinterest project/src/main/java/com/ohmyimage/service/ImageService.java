@@ -1,20 +1,426 @@
 package com.ohmyimage.service;
 
+import com.ohmyimage.model.ImageSweepCandidate;
+import com.ohmyimage.repository.ImageSweepCandidateRepository;
+import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.storage.ImageInfo;
+import com.ohmyimage.storage.ImageStore;
+import com.ohmyimage.storage.StagedUpload;
+import com.ohmyimage.storage.StoredImage;
+import com.ohmyimage.util.AfterCommit;
+import com.ohmyimage.util.ImageResizer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Service
 public class ImageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
+    // Grid'ler için üretilen sabit küçük resim genişlikleri (küçükten büyüğe)
+    public static final int[] DERIVATIVE_WIDTHS = {236, 474, 736};
+
+    // İstenen genişlik için sunulacak görsel; pending=true ise türev henüz hazır değildir ve geçici olarak orijinal gönderilir
+    public record Variant(ImageInfo image, boolean pending) {
+    }
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private PinRepository pinRepository;
+
+    @Autowired
+    private ImageSweepCandidateRepository sweepCandidateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tek bir görselin en büyük boyutu
+    @Value("${ohmyimage.images.max-upload-size:20MB}")
+    private DataSize maxUploadSize;
+
+    // Yüklemelerin ImageStore'a aktarılmadan önce yazıldığı dizin
+    @Value("${ohmyimage.images.staging-dir:${java.io.tmpdir}}")
+    private Path stagingDir;
+
+    @Value("${ohmyimage.images.derivative-threads:2}")
+    private int derivativeThreads;
+
+    @Value("${ohmyimage.images.derivative-queue-capacity:1000}")
+    private int derivativeQueueCapacity;
+
+    // Yüklenen ya da serbest bırakılan bir görsel en az bu kadar süre silinmez; görseli kullanan pinin
+    // transaction'ı bu süre içinde commit edilmiş olmalıdır
+    @Value("${ohmyimage.images.sweep-grace:1h}")
+    private Duration sweepGrace;
+
+    @Value("${ohmyimage.images.sweep-interval:10m}")
+    private Duration sweepInterval;
+
+    // Bir transaction'da en fazla bu kadar aday incelenir
+    @Value("${ohmyimage.images.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    // Küçük resim üretimi sınırlı bir iş havuzunda yapılır; kuyruk dolarsa iş bir sonraki istekte tekrar denenir
+    private ThreadPoolExecutor derivativeExecutor;
+
+    private ScheduledExecutorService sweeper;
+
+    // Süpürme adayları çağıranın transaction'ından bağımsız commit edilir
+    private TransactionTemplate requiresNew;
+
+    // Aynı görsel için aynı anda birden fazla üretim işi kuyruğa girmesin
+    private final Set<String> pendingDerivatives = ConcurrentHashMap.newKeySet();
+
+    // Yüklenen ve sunulan görsel baytları (variant: original / thumbnail)
+    private DistributionSummary uploadedBytes;
+    private DistributionSummary servedOriginalBytes;
+    private DistributionSummary servedThumbnailBytes;
+
+    @PostConstruct
+    void startDerivativeWorkers() throws IOException {
+        Files.createDirectories(stagingDir);
+        AtomicInteger threadCount = new AtomicInteger();
+        derivativeExecutor = new ThreadPoolExecutor(derivativeThreads, derivativeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(derivativeQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        uploadedBytes = DistributionSummary.builder("ohmyimage.images.uploaded")
+                .baseUnit("bytes").description("Stored image uploads").register(meterRegistry);
+        servedOriginalBytes = servedSummary("original");
+        servedThumbnailBytes = servedSummary("thumbnail");
+        Gauge.builder("ohmyimage.images.derivative.queue", this, ImageService::getDerivativeQueueDepth)
+                .description("Thumbnail jobs waiting").register(meterRegistry);
+
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private DistributionSummary servedSummary(String variant) {
+        return DistributionSummary.builder("ohmyimage.images.served")
+                .baseUnit("bytes").description("Image response bodies").tag("variant", variant)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stopDerivativeWorkers() {
+        derivativeExecutor.shutdownNow();
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Yüklenen dosyayı görsel olarak saklar (bkz. store(InputStream))
+     */
+    public ImageInfo store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in);
+        }
+    }
+
+    /**
+     * Görseli akıtarak geçici dosyaya yazar (özet, boyut ve format kontrolü yazarken yapılır), sonra içerik
+     * özetiyle ImageStore'a aktarır. Görselin tamamı hiçbir aşamada heap'te tutulmaz.
+     * Aynı içerik daha önce yüklendiyse tekrar yazılmaz. Akışı kapatmak çağıranın işidir.
+     * Görsel yazılmadan önce süpürme adayı yapılır: aynı içerik silinmek üzereyse silme ertelenir,
+     * çağıranın transaction'ı geri alınırsa da yetim kalan görsel bekleme süresinden sonra silinir.
+     */
+    public ImageInfo store(InputStream in) throws IOException {
+        try (StagedUpload upload = StagedUpload.stage(in, stagingDir, maxUploadSize.toBytes())) {
+            String contentType = detectContentType(upload.header());
+            if (contentType == null) {
+                throw new IllegalArgumentException("Desteklenmeyen görsel formatı (JPEG, PNG, GIF veya WEBP yükleyiniz)");
+            }
+            String key = upload.sha256();
+            markForSweep(List.of(key));
+            imageStore.put(key, contentType, upload.file());
+            uploadedBytes.record(upload.size());
+            if (supportsDerivatives(contentType)) {
+                AfterCommit.run(() -> scheduleDerivatives(key));
+            }
+            return new ImageInfo(key, contentType, upload.size());
+        }
+    }
+
+    /**
+     * İstenen gösterim genişliğine uyan en küçük küçük resmi seçer.
+     * Küçük resim henüz üretilmediyse üretimi kuyruğa alır ve o zamana kadar orijinali döndürür.
+     */
+    public Variant selectVariant(ImageInfo original, Integer originalWidth, int requestedWidth) throws IOException {
+        Integer target = null;
+        for (int width : DERIVATIVE_WIDTHS) {
+            if (width >= requestedWidth) {
+                target = width;
+                break;
+            }
+        }
+        if (target == null || !supportsDerivatives(original.contentType())
+                || (originalWidth != null && originalWidth <= target)) {
+            return new Variant(original, false);
+        }
+        String derivativeKey = derivativeKey(original.key(), target);
+        OptionalLong size = imageStore.sizeOf(derivativeKey);
+        if (size.isPresent()) {
+            return new Variant(new ImageInfo(derivativeKey, "image/jpeg", size.getAsLong()), false);
+        }
+        scheduleDerivatives(original.key());
+        return new Variant(original, true);
+    }
+
+    /**
+     * Görselin küçük resimlerini arka planda üretmek üzere kuyruğa alır
+     */
+    public void scheduleDerivatives(String key) {
+        if (!pendingDerivatives.add(key)) {
+            return;
+        }
+        try {
+            derivativeExecutor.execute(() -> {
+                try {
+                    generateDerivatives(key);
+                } catch (Exception e) {
+                    logger.warn("Derivatives for image {} could not be generated: {}", key, e.getMessage());
+                } finally {
+                    pendingDerivatives.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingDerivatives.remove(key);
+            logger.warn("Derivative queue is full ({} waiting), image {} will be retried on next request",
+                    getDerivativeQueueDepth(), key);
+        }
+    }
+
+    /**
+     * Küçük resim üretimi için kuyrukta bekleyen iş sayısı
+     */
+    public int getDerivativeQueueDepth() {
+        return derivativeExecutor.getQueue().size();
+    }
+
+    // Orijinali bir kez çözer, tüm genişlikleri bundan üretir ve orijinalin yanına yazar
+    private void generateDerivatives(String key) throws IOException {
+        Optional<StoredImage> original = imageStore.open(key);
+        if (original.isEmpty()) {
+            return;
+        }
+        ImageResizer.Decoded decoded;
+        try (InputStream in = original.get().openStream()) {
+            decoded = ImageResizer.decode(in, DERIVATIVE_WIDTHS[DERIVATIVE_WIDTHS.length - 1]);
+        }
+        if (decoded == null) {
+            logger.debug("No image reader for {}, derivatives skipped", key);
+            return;
+        }
+        for (int width : DERIVATIVE_WIDTHS) {
+            if (width >= decoded.originalWidth()) {
+                break; // Orijinalden büyük küçük resim üretilmez, orijinal kullanılır
+            }
+            String derivativeKey = derivativeKey(key, width);
+            if (!imageStore.exists(derivativeKey)) {
+                byte[] jpeg = ImageResizer.encodeJpeg(ImageResizer.scaleToWidth(decoded.image(), width), 0.85f);
+                imageStore.put(derivativeKey, "image/jpeg", jpeg);
+            }
+        }
+        pinRepository.updateImageDimensions(key, decoded.originalWidth(), decoded.originalHeight());
+        logger.debug("Derivatives ready for image {} ({}x{})", key, decoded.originalWidth(), decoded.originalHeight());
+    }
+
+    private static String derivativeKey(String key, int width) {
+        return key + "_" + width;
+    }
+
+    // Animasyonlu GIF'lerin animasyonu kaybolmasın; WEBP için JDK'da okuyucu yok
+    private static boolean supportsDerivatives(String contentType) {
+        return "image/jpeg".equals(contentType) || "image/png".equals(contentType);
+    }
+
+    /**
+     * Saklanan görseli okumak için açar
+     */
+    public Optional<StoredImage> open(String key) throws IOException {
+        return imageStore.open(key);
+    }
+
+    /**
+     * Görseli yanıt gövdesi olarak açar ve sunulan baytları sayar (304 yanıtlarında çağrılmaz)
+     */
+    public Optional<InputStream> openForResponse(ImageInfo image, boolean thumbnail) throws IOException {
+        Optional<StoredImage> stored = imageStore.open(image.key());
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        (thumbnail ? servedThumbnailBytes : servedOriginalBytes).record(image.size());
+        return Optional.of(stored.get().openStream());
+    }
+
+    /**
+     * Verilen görselleri transaction commit edildikten sonra süpürme adayı yapar; bekleme süresi dolduğunda
+     * hâlâ hiçbir pine bağlı değillerse süpürme işi siler (bkz. sweepUnreferenced)
+     */
+    public void releaseUnreferenced(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Set<String> candidates = new HashSet<>(keys);
+        AfterCommit.run(() -> markForSweep(candidates));
+    }
+
+    /**
+     * Bekleme süresi dolmuş adaylardan hiçbir pine bağlı olmayanları türevleriyle birlikte siler ve adayları kaldırır.
+     * Adaylar kilitliyken karar verilir: aynı içeriği o sırada yükleyen istek markForSweep'te bu transaction'ın
+     * bitmesini bekler, sonra adayı yeniden ekleyip içeriği yeniden yazar. Silinen görsel sayısını döndürür.
+     */
+    public int sweepUnreferenced(LocalDateTime now) {
+        int deleted = 0;
+        SweepBatch batch;
+        do {
+            batch = requiresNew.execute(status -> sweepBatch(now));
+            deleted += batch.deleted();
+        } while (batch.claimed() == sweepBatchSize);
+        return deleted;
+    }
+
+    private record SweepBatch(int claimed, int deleted) {
+    }
+
+    private SweepBatch sweepBatch(LocalDateTime now) {
+        List<ImageSweepCandidate> due = sweepCandidateRepository.findDueForUpdate(now, PageRequest.of(0, sweepBatchSize));
+        if (due.isEmpty()) {
+            return new SweepBatch(0, 0);
+        }
+        Set<String> unreferenced = due.stream().map(ImageSweepCandidate::getImageKey).collect(Collectors.toCollection(HashSet::new));
+        unreferenced.removeAll(pinRepository.findReferencedImageKeys(unreferenced));
+        for (String key : unreferenced) {
+            try {
+                imageStore.delete(key);
+                for (int width : DERIVATIVE_WIDTHS) {
+                    imageStore.delete(derivativeKey(key, width));
+                }
+            } catch (IOException e) {
+                logger.warn("Unused image {} could not be deleted: {}", key, e.getMessage());
+            }
+        }
+        sweepCandidateRepository.deleteAllInBatch(due);
+        return new SweepBatch(due.size(), unreferenced.size());
+    }
+
+    // Hata zamanlanmış işi durdurmamalı
+    private void sweep() {
+        try {
+            int deleted = sweepUnreferenced(LocalDateTime.now());
+            if (deleted > 0) {
+                logger.info("Swept {} unreferenced images", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Image sweep failed: {}", e.toString());
+        }
+    }
+
+    // eligibleAt'i şimdi + bekleme süresine çeker (süre sabit olduğundan eski değerden hiç geri gitmez).
+    // Her anahtar kendi transaction'ında commit edilir; süpürme satırı kilitliyse onun bitmesi beklenir.
+    private void markForSweep(Collection<String> keys) {
+        LocalDateTime eligibleAt = LocalDateTime.now().plus(sweepGrace);
+        for (String key : keys) {
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    if (sweepCandidateRepository.postpone(key, eligibleAt) == 0) {
+                        sweepCandidateRepository.saveAndFlush(new ImageSweepCandidate(key, eligibleAt));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Aynı anahtar eş zamanlı eklendi; eklenen satır uzatılır
+                requiresNew.executeWithoutResult(status -> sweepCandidateRepository.postpone(key, eligibleAt));
+            }
+        }
+    }
+
+    /**
+     * Görselin ilk byte'larına (magic number) bakarak içerik tipini belirler.
+     * Desteklenmeyen bir formatsa null döner.
+     */
+    public String detectContentType(byte[] data) {
+        if (data == null || data.length < 4) {
+            return null;
+        }
+        if ((data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8) {
+            return "image/jpeg";
+        }
+        if ((data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return "image/png";
+        }
+        if (data[0] == 'G' && data[1] == 'I' && data[2] == 'F') {
+            return "image/gif";
+        }
+        if (data.length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+
     /**
-     * MultipartFile'dan byte[] dönüştürür
+     * Görsel içeriğinin SHA-256 özetini hex olarak döndürür
      */
-    public byte[] convertToBytes(MultipartFile file) throws IOException {
-        if (file == null || file.isEmpty()) {
-            return new byte[0];
+    public String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
         }
-        return file.getBytes();
     }
-}
\ No newline at end of file
+}
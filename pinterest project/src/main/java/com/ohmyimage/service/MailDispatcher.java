@@ -0,0 +1,205 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.OutboxMail;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Outbox'taki mailleri arka planda gönderir. Her turda sırası gelen mailler toplu alınır ve en fazla
+// "concurrency" gönderici arasında bölünür; her gönderici kendi payını tek SMTP bağlantısıyla yollar.
+// Başarısız mailler üstel artan aralıklarla yeniden denenir, maxAttempts sonunda FAILED olarak bırakılır.
+@Component
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${ohmyimage.mail.from:}")
+    private String from;
+
+    // Aynı anda açık tutulacak en fazla SMTP bağlantısı
+    @Value("${ohmyimage.mail.concurrency:2}")
+    private int concurrency;
+
+    // Bir turda outbox'tan alınan mail sayısı
+    @Value("${ohmyimage.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ohmyimage.mail.poll-interval:2s}")
+    private Duration pollInterval;
+
+    // Alınan mailin sonucu yazılmazsa yeniden denenmeden önce beklenecek süre
+    @Value("${ohmyimage.mail.lease:5m}")
+    private Duration lease;
+
+    @Value("${ohmyimage.mail.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${ohmyimage.mail.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${ohmyimage.mail.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    private ScheduledExecutorService poller;
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    void startDispatcher() {
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopDispatcher() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // Outbox boşalana (ya da bir tur eksik dolana) kadar gönderir; hata zamanlanmış işi durdurmamalı
+    private void drain() {
+        try {
+            while (dispatchOnce() == batchSize) {
+                // devam
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Mail dispatch failed: {}", e.toString());
+        }
+    }
+
+    // Bir tur: sırası gelen mailleri alır, göndericiler arasında böler ve hepsi bitene kadar bekler.
+    // Gönderilen mail sayısını döndürür.
+    int dispatchOnce() throws InterruptedException {
+        List<OutboxMail> batch = mailOutboxService.claimDue(batchSize, lease);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int chunkSize = (batch.size() + concurrency - 1) / concurrency;
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int start = 0; start < batch.size(); start += chunkSize) {
+            List<OutboxMail> chunk = batch.subList(start, Math.min(start + chunkSize, batch.size()));
+            chunks.add(() -> {
+                deliver(chunk);
+                return null;
+            });
+        }
+        for (Future<Void> result : senders.invokeAll(chunks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                // Sonucu yazılamayan mailler kira süresi dolunca yeniden denenir
+                logger.warn("Mail delivery chunk failed: {}", e.getCause().toString());
+            }
+        }
+        return batch.size();
+    }
+
+    private void deliver(List<OutboxMail> mails) {
+        Map<SimpleMailMessage, OutboxMail> byMessage = new IdentityHashMap<>();
+        for (OutboxMail mail : mails) {
+            byMessage.put(toMessage(mail), mail);
+        }
+        SimpleMailMessage[] messages = byMessage.keySet().toArray(SimpleMailMessage[]::new);
+
+        Map<Object, Exception> failed = Map.of();
+        MailException error = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            error = e;
+        } catch (MailException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new MailSendException("Mail delivery failed", e);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (SimpleMailMessage message : messages) {
+            OutboxMail mail = byMessage.get(message);
+            // Hangi mesajın başarısız olduğu bilinmiyorsa hepsi başarısız sayılır
+            Exception cause = error == null ? null : failed.isEmpty() ? error : failed.get(message);
+            if (cause == null) {
+                sent.add(mail.getId());
+            } else {
+                retryOrGiveUp(mail, cause);
+            }
+        }
+        mailOutboxService.markSent(sent);
+    }
+
+    private void retryOrGiveUp(OutboxMail mail, Exception cause) {
+        String error = cause.toString();
+        if (mail.getAttempts() >= maxAttempts) {
+            logger.warn("Giving up mail {} to {} after {} attempts: {}",
+                    mail.getId(), mail.getRecipient(), mail.getAttempts(), error);
+            mailOutboxService.markFailed(mail.getId(), OutboxMail.Status.FAILED, error, mail.getNextAttemptAt());
+            return;
+        }
+        Duration delay = backoff(mail.getAttempts());
+        logger.info("Mail {} attempt {} failed, retrying in {}: {}", mail.getId(), mail.getAttempts(), delay, error);
+        mailOutboxService.markFailed(mail.getId(), OutboxMail.Status.PENDING, error, LocalDateTime.now().plus(delay));
+    }
+
+    // initialBackoff, 2x, 4x, ... en fazla maxBackoff
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMessage(OutboxMail mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (!from.isBlank()) {
+            message.setFrom(from);
+        }
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getBody());
+        return message;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.OutboxMail;
+import com.ohmyimage.repository.OutboxMailRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Mail outbox'ı: mailler çağıranın transaction'ına yazılır (commit olmazsa mail de gitmez),
+// gönderimi MailDispatcher yapar. SMTP beklenirken ne istek thread'i ne de veritabanı bağlantısı tutulur.
+@Service
+public class MailOutboxService {
+
+    // lastError kolonunun uzunluğu
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Transactional
+    public OutboxMail enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxMailRepository.save(OutboxMail.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(OutboxMail.Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    // Sırası gelen en fazla limit kadar maili alır: deneme sayısı artırılır ve sonraki deneme kira süresi
+    // sonrasına çekilir. Gönderen süreç sonucu yazamadan ölürse mail kira bitince yeniden denenir.
+    @Transactional
+    public List<OutboxMail> claimDue(int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> due = outboxMailRepository.findDueForUpdate(OutboxMail.Status.PENDING, now, PageRequest.of(0, limit));
+        for (OutboxMail mail : due) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxMailRepository.markSent(ids, OutboxMail.Status.SENT, LocalDateTime.now());
+        }
+    }
+
+    // Başarısız deneme; status PENDING ise nextAttemptAt'te yeniden denenir, FAILED ise bırakılır
+    @Transactional
+    public void markFailed(Long id, OutboxMail.Status status, String error, LocalDateTime nextAttemptAt) {
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        outboxMailRepository.markFailed(id, status, error, nextAttemptAt);
+    }
+}
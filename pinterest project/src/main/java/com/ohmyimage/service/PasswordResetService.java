@@ -3,20 +3,32 @@ package com.ohmyimage.service;
 import com.ohmyimage.model.PasswordResetToken;
 import com.ohmyimage.model.User;
 import com.ohmyimage.repository.PasswordResetTokenRepository;
+import com.ohmyimage.security.ResetTokenCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PasswordResetService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetService.class);
+
     @Autowired
     private PasswordResetTokenRepository tokenRepository;
 
@@ -24,7 +36,38 @@ public class PasswordResetService {
     private UserService userService;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private ResetTokenCache resetTokenCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ohmyimage.reset-tokens.sweep-interval:10m}")
+    private Duration sweepInterval;
+
+    // Süresi dolmuş token'lar bir transaction'da en fazla bu kadar silinir
+    @Value("${ohmyimage.reset-tokens.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void startSweeper() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reset-token-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopSweeper() {
+        sweeper.shutdownNow();
+    }
 
     @Transactional
     public void createPasswordResetToken(String email) {
@@ -43,36 +86,58 @@ public class PasswordResetService {
                 .expiresAt(LocalDateTime.now().plusHours(1))
                 .build();
         tokenRepository.save(prt);
+        resetTokenCache.replaceUserTokens(token, user.getId(), prt.getExpiresAt());
 
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(user.getEmail());
-        msg.setSubject("OhMyImage Şifre Sıfırlama");
+        // Mail aynı transaction'da outbox'a yazılır, MailDispatcher arka planda gönderir
         String link = "http://localhost:8080/reset-password?token=" + token;
-        msg.setText("Şifrenizi sıfırlamak için tıklayın:\n" + link);
-        mailSender.send(msg);
+        mailOutboxService.enqueue(user.getEmail(), "OhMyImage Şifre Sıfırlama",
+                "Şifrenizi sıfırlamak için tıklayın:\n" + link);
     }
 
-    public Optional<User> validatePasswordResetToken(String token) {
-        Optional<PasswordResetToken> prtOpt = tokenRepository.findByToken(token);
-        if (prtOpt.isEmpty()) {
-            return Optional.empty();
-        }
-        PasswordResetToken prt = prtOpt.get();
-        if (prt.getExpiresAt().isBefore(LocalDateTime.now())) {
-            tokenRepository.delete(prt);
-            return Optional.empty();
-        }
-        return Optional.of(prt.getUser());
+    // Token geçerliyse sahibinin id'si; çoğunlukla önbellekten, süresi dolan token expiresAt anında düşer.
+    // Süresi dolmuş satırları zamanlanmış temizlik siler.
+    public Optional<Long> validatePasswordResetToken(String token) {
+        return resetTokenCache.find(token).map(ResetTokenCache.ResetToken::userId);
     }
 
     @Transactional
     public void deleteToken(String token) {
         tokenRepository.findByToken(token).ifPresent(tokenRepository::delete);
+        resetTokenCache.evictToken(token);
     }
 
     @Transactional
     public void deleteAllUserTokens(User user) {
         List<PasswordResetToken> tokens = tokenRepository.findByUser(user);
         tokenRepository.deleteAll(tokens);
+        resetTokenCache.evictUsers(List.of(user.getId()));
+    }
+
+    // Süresi dolmuş token'ları parça parça siler; her parça ayrı, kısa bir transaction'dır
+    public int purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = tokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+                return ids.isEmpty() ? 0 : tokenRepository.deleteByIdIn(ids);
+            });
+            purged += deleted;
+        } while (deleted == sweepBatchSize);
+        return purged;
+    }
+
+    // Hata zamanlanmış işi durdurmamalı
+    private void sweep() {
+        try {
+            int purged = purgeExpiredTokens();
+            int evicted = resetTokenCache.purgeExpired();
+            if (purged > 0) {
+                logger.info("Purged {} expired password reset tokens ({} cached)", purged, evicted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Password reset token sweep failed: {}", e.toString());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,375 @@
+package com.ohmyimage.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.User;
+import com.ohmyimage.storage.ImageInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+// ZIP arşivinden toplu pin içe aktarma. Arşiv önce geçici dosyaya yazılır, sonra arka planda
+// ZipInputStream ile girdi girdi okunur; görseller heap'e alınmaz, bellekte sadece bir grup pinin meta verisi olur.
+// Görseller ImageStore'a tek tek yazılır, pinler ise grup grup (tek transaction'da) PinService'ten kaydedilir.
+// İsteğe bağlı manifest.csv veya manifest.json dosyası görsel başına başlık, açıklama ve pano verir.
+@Service
+public class PinImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinImportService.class);
+
+    // İş başına saklanan en fazla hata satırı
+    private static final int MAX_ERRORS = 200;
+
+    // Biten işlerin durum sayfası bu süre boyunca açık kalır
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    // Manifestteki bir satır; file, arşivdeki yol veya sadece dosya adı olabilir
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ManifestEntry(String file, String title, String description, String board) {
+    }
+
+    public record EntryError(String entry, String message) {
+    }
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    // Bir içe aktarma işinin durumu; durum sayfası periyodik olarak okur
+    public static class ImportJob {
+        private final String id;
+        private final Long ownerId;
+        private final String fileName;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final List<EntryError> errors = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile Status status = Status.QUEUED;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(Long ownerId, String fileName) {
+            this.id = UUID.randomUUID().toString();
+            this.ownerId = ownerId;
+            this.fileName = fileName;
+        }
+
+        public String getId() { return id; }
+        public Long getOwnerId() { return ownerId; }
+        public String getFileName() { return fileName; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public Status getStatus() { return status; }
+        public int getProcessed() { return processed.get(); }
+        public int getImported() { return imported.get(); }
+        public int getFailed() { return failed.get(); }
+        public boolean isFinished() { return status == Status.DONE || status == Status.FAILED; }
+
+        public List<EntryError> getErrors() {
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+
+        void fail(String entry, String message) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new EntryError(entry, message));
+            }
+        }
+
+        void finish(Status finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+    }
+
+    @Autowired private PinService pinService;
+    @Autowired private BoardService boardService;
+    @Autowired private ImageService imageService;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${ohmyimage.import.threads:2}")
+    private int importThreads;
+
+    @Value("${ohmyimage.import.queue-capacity:20}")
+    private int importQueueCapacity;
+
+    // Bir transaction'da kaydedilen pin sayısı
+    @Value("${ohmyimage.import.batch-size:50}")
+    private int batchSize;
+
+    private ThreadPoolExecutor importExecutor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void startImportWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        importExecutor = new ThreadPoolExecutor(importThreads, importThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(importQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pin-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopImportWorkers() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * İçe aktarmayı kuyruğa alır. Arşiv dosyasının sahipliği bu servise geçer, iş bitince silinir.
+     * Manifestte panosu belirtilmeyen görseller defaultBoard'a eklenir.
+     */
+    public ImportJob submit(Path archive, String fileName, User owner, Board defaultBoard) throws IOException {
+        pruneFinishedJobs();
+        ImportJob job = new ImportJob(owner.getId(), fileName);
+        jobs.put(job.getId(), job);
+        try {
+            importExecutor.execute(() -> run(job, archive, owner, defaultBoard));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(archive);
+            throw new IllegalStateException("Şu anda çok fazla içe aktarma işi var, lütfen biraz sonra tekrar deneyin.");
+        }
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ImportJob job, Path archive, User owner, Board defaultBoard) {
+        job.status = Status.RUNNING;
+        long start = System.nanoTime();
+        try {
+            Map<String, ManifestEntry> manifest = readManifest(archive);
+            // Pano adları içe aktarma başına bir kez çözülür
+            Map<String, Board> boards = new HashMap<>();
+            List<Pin> batch = new ArrayList<>(batchSize);
+            List<String> batchEntries = new ArrayList<>(batchSize);
+
+            try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    String name = entry.getName();
+                    if (entry.isDirectory() || isIgnored(name)) {
+                        continue;
+                    }
+                    job.processed.incrementAndGet();
+                    try {
+                        // Girdi geçici dosyaya akıtılır (bkz. ImageService.store), heap'e okunmaz
+                        ImageInfo image = imageService.store(zip);
+                        ManifestEntry meta = manifest.get(name);
+                        if (meta == null) {
+                            meta = manifest.get(baseName(name));
+                        }
+                        batch.add(buildPin(meta, name, image, owner, resolveBoard(meta, owner, defaultBoard, boards)));
+                        batchEntries.add(name);
+                    } catch (Exception e) {
+                        job.fail(name, e.getMessage());
+                    }
+                    if (batch.size() >= batchSize) {
+                        saveBatch(job, batch, batchEntries);
+                    }
+                }
+            }
+            saveBatch(job, batch, batchEntries);
+            job.finish(Status.DONE);
+            logger.info("Pin import {} finished in {} ms: {} imported, {} failed",
+                    job.getId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    job.getImported(), job.getFailed());
+        } catch (Exception e) {
+            job.fail(job.getFileName(), "Arşiv okunamadı: " + e.getMessage());
+            job.finish(Status.FAILED);
+            logger.warn("Pin import {} failed: {}", job.getId(), e.toString());
+        } finally {
+            try {
+                Files.deleteIfExists(archive);
+            } catch (IOException e) {
+                logger.warn("Import archive {} could not be deleted: {}", archive, e.getMessage());
+            }
+        }
+    }
+
+    private void saveBatch(ImportJob job, List<Pin> batch, List<String> batchEntries) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            pinService.saveAll(batch);
+            job.imported.addAndGet(batch.size());
+        } catch (Exception e) {
+            // Grup geri alındı; görseller başka pin kullanmıyorsa temizlenir
+            batchEntries.forEach(name -> job.fail(name, "Kaydedilemedi: " + e.getMessage()));
+            imageService.releaseUnreferenced(batch.stream().map(Pin::getImageSha256).toList());
+        }
+        batch.clear();
+        batchEntries.clear();
+    }
+
+    private Pin buildPin(ManifestEntry meta, String name, ImageInfo image, User owner, Board board) {
+        String title = meta != null && meta.title() != null && !meta.title().isBlank() ? meta.title() : titleFromName(name);
+        LocalDateTime now = LocalDateTime.now();
+        return Pin.builder()
+                .title(title)
+                .description(meta != null ? meta.description() : null)
+                .createdAt(now)
+                .owner(owner)
+                .board(board)
+                .imageContentType(image.contentType())
+                .imageSha256(image.key())
+                .imageSize(image.size())
+                .imageUpdatedAt(now)
+                .build();
+    }
+
+    private Board resolveBoard(ManifestEntry meta, User owner, Board defaultBoard, Map<String, Board> boards) {
+        if (meta == null || meta.board() == null || meta.board().isBlank()) {
+            return defaultBoard;
+        }
+        return boards.computeIfAbsent(meta.board().trim(), name -> boardService.findOrCreate(name, owner));
+    }
+
+    // Manifest arşivin merkezi dizininden bulunur (ZipFile), böylece görsellerden sonra gelse de önce okunur
+    private Map<String, ManifestEntry> readManifest(Path archive) throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+            ZipEntry json = zipFile.getEntry("manifest.json");
+            ZipEntry csv = zipFile.getEntry("manifest.csv");
+            List<ManifestEntry> entries;
+            if (json != null) {
+                try (InputStream in = zipFile.getInputStream(json)) {
+                    entries = objectMapper.readValue(in, new TypeReference<List<ManifestEntry>>() {
+                    });
+                }
+            } else if (csv != null) {
+                try (InputStream in = zipFile.getInputStream(csv)) {
+                    entries = parseCsv(in);
+                }
+            } else {
+                return Map.of();
+            }
+            Map<String, ManifestEntry> byFile = new HashMap<>();
+            for (ManifestEntry entry : entries) {
+                if (entry.file() != null && !entry.file().isBlank()) {
+                    byFile.put(entry.file().trim(), entry);
+                }
+            }
+            return byFile;
+        }
+    }
+
+    // Başlık satırı zorunlu: file,title,description,board (sıra serbest). Tırnaklı alanlar ve "" desteklenir.
+    private List<ManifestEntry> parseCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        List<String> header = splitCsvLine(headerLine.replace("\uFEFF", "")).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        List<ManifestEntry> entries = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = splitCsvLine(line);
+            entries.add(new ManifestEntry(column(header, values, "file"), column(header, values, "title"),
+                    column(header, values, "description"), column(header, values, "board")));
+        }
+        return entries;
+    }
+
+    private static String column(List<String> header, List<String> values, String name) {
+        int index = header.indexOf(name);
+        return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // Manifest, macOS meta dosyaları ve gizli dosyalar içe aktarılmaz
+    private static boolean isIgnored(String name) {
+        String base = baseName(name);
+        return name.startsWith("__MACOSX/") || base.startsWith(".")
+                || name.equals("manifest.json") || name.equals("manifest.csv");
+    }
+
+    private static String baseName(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    private static String titleFromName(String name) {
+        String base = baseName(name);
+        int dot = base.lastIndexOf('.');
+        return dot > 0 ? base.substring(0, dot) : base;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -1,23 +1,81 @@
 package com.ohmyimage.service;
 
-import com.ohmyimage.model.Board;
+import com.ohmyimage.dto.KeysetCursor;
+import com.ohmyimage.dto.KeysetPage;
+import com.ohmyimage.dto.PinCard;
 import com.ohmyimage.model.Pin;
 import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.security.OwnershipService;
+import com.ohmyimage.storage.ImageInfo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PinService {
+    // Ana sayfa akışında bir sayfadaki pin sayısı
+    public static final int FEED_PAGE_SIZE = 30;
+
     @Autowired
     private PinRepository pinRepository;
 
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private OwnershipService ownershipService;
+
+    @Autowired
+    private CounterService counterService;
+
     @Transactional
     public Pin save(Pin pin) {
-        return pinRepository.save(pin);
+        Long previousBoardId = pin.getId() != null ? pin.getSavedBoardId() : null;
+        Pin saved = pinRepository.save(pin);
+        counterService.pinMoved(previousBoardId, boardIdOf(saved));
+        searchService.indexPin(saved);
+        return saved;
+    }
+
+    // Yeni pinleri tek transaction'da kaydeder (toplu içe aktarma); insert'ler JDBC batch olarak gider
+    @Transactional
+    public List<Pin> saveAll(List<Pin> pins) {
+        List<Pin> saved = pinRepository.saveAll(pins);
+        counterService.pinsAdded(saved.stream().map(PinService::boardIdOf).toList());
+        saved.forEach(searchService::indexPin);
+        return saved;
+    }
+
+    // Pin'i yeni görseliyle birlikte kaydeder; eski görsel artık kullanılmıyorsa silinir
+    @Transactional
+    public Pin saveWithImage(Pin pin, MultipartFile file) throws IOException {
+        String previousKey = pin.getImageSha256();
+        ImageInfo image = imageService.store(file);
+
+        pin.setImageContentType(image.contentType());
+        pin.setImageSha256(image.key());
+        pin.setImageSize(image.size());
+        pin.setImageUpdatedAt(LocalDateTime.now());
+        Long previousBoardId = pin.getId() != null ? pin.getSavedBoardId() : null;
+        Pin saved = pinRepository.save(pin);
+        counterService.pinMoved(previousBoardId, boardIdOf(saved));
+        searchService.indexPin(saved);
+
+        if (previousKey != null && !previousKey.equals(image.key())) {
+            imageService.releaseUnreferenced(Set.of(previousKey));
+        }
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -25,14 +83,32 @@ public class PinService {
         return pinRepository.findById(id);
     }
 
+    // Listeleme sayfaları entity yerine pin kartı döndürür (bkz. PinCard)
     @Transactional(readOnly = true)
-    public List<Pin> searchByTitle(String query) {
-        return pinRepository.findByTitleContainingIgnoreCase(query);
+    public List<PinCard> findByBoard(Long boardId) {
+        return pinRepository.findCardsByBoardId(boardId);
     }
 
+    // Ana sayfa akışının bir sayfası; cursor null ise en yeni pinlerden başlar.
+    // Bir fazla kayıt çekilerek sonraki sayfanın olup olmadığı anlaşılır (count sorgusu yok).
     @Transactional(readOnly = true)
-    public List<Pin> findByBoard(Board board) {
-        return pinRepository.findByBoard(board);
+    public KeysetPage<PinCard> findFeedPage(KeysetCursor cursor) {
+        PageRequest limit = PageRequest.of(0, FEED_PAGE_SIZE + 1);
+        List<PinCard> pins = cursor == null
+                ? pinRepository.findFeedFirstPage(limit)
+                : pinRepository.findFeedPageBefore(cursor.createdAt(), cursor.id(), limit);
+        if (pins.size() <= FEED_PAGE_SIZE) {
+            return new KeysetPage<>(pins, null);
+        }
+        List<PinCard> page = pins.subList(0, FEED_PAGE_SIZE);
+        PinCard last = page.get(page.size() - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.createdAt(), last.id()));
+    }
+
+    // Pinin panosu; entity yüklenmeden
+    @Transactional(readOnly = true)
+    public Optional<Long> findBoardId(Long id) {
+        return pinRepository.findBoardIdById(id);
     }
 
     @Transactional(readOnly = true)
@@ -42,6 +118,16 @@ public class PinService {
 
     @Transactional
     public void deleteById(Long id) {
+        Optional<String> imageKey = pinRepository.findImageKeyById(id);
+        Optional<Long> boardId = pinRepository.findBoardIdById(id);
         pinRepository.deleteById(id);
+        boardId.ifPresent(previous -> counterService.pinMoved(previous, null));
+        searchService.removePins(List.of(id));
+        ownershipService.evictPins(List.of(id));
+        imageKey.ifPresent(key -> imageService.releaseUnreferenced(Set.of(key)));
+    }
+
+    private static Long boardIdOf(Pin pin) {
+        return pin.getBoard() != null ? pin.getBoard().getId() : null;
     }
-}
\ No newline at end of file
+}
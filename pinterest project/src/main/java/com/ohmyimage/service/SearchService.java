@@ -0,0 +1,187 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.dto.BoardSummary;
+import com.ohmyimage.dto.PinCard;
+import com.ohmyimage.dto.SearchPage;
+import com.ohmyimage.dto.UserSummary;
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.User;
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.repository.UserRepository;
+import com.ohmyimage.search.InvertedIndex;
+import com.ohmyimage.search.PrefixIndex;
+import com.ohmyimage.search.SearchDocument;
+import com.ohmyimage.search.SearchHits;
+import com.ohmyimage.search.Suggestion;
+import com.ohmyimage.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Pin, pano ve kullanıcı araması. Sorgular veritabanına LIKE ile gitmez; bellek içi ters dizinlerde
+// BM25 ile puanlanır, sadece istenen sayfadaki kayıtlar id ile veritabanından okunur.
+// Dizinler açılışta kurulur ve kayıt/silme işlemlerinde commit sonrası güncellenir.
+// Arama kutusu önerileri de aynı yerden, bellek içi önek dizininden verilir.
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int PAGE_SIZE = 20;
+
+    // Arama kutusunda gösterilen öneri sayısı
+    public static final int SUGGESTION_LIMIT = 8;
+
+    @Autowired private PinRepository pinRepository;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private UserRepository userRepository;
+
+    private final InvertedIndex pinIndex = new InvertedIndex();
+    private final InvertedIndex boardIndex = new InvertedIndex();
+    private final InvertedIndex userIndex = new InvertedIndex();
+
+    // Önek dizininin belleği bu kadar anahtarla sınırlıdır (bir kayıt kelime sayısı kadar, en fazla 6 anahtar tutar)
+    @Value("${ohmyimage.search.suggest-max-entries:500000}")
+    private int suggestMaxEntries;
+
+    private PrefixIndex suggestions;
+
+    @PostConstruct
+    void createSuggestionIndex() {
+        suggestions = new PrefixIndex(suggestMaxEntries);
+    }
+
+    // Migration'lar (CommandLineRunner) bittikten sonra çalışır
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        pinIndex.clear();
+        boardIndex.clear();
+        userIndex.clear();
+        suggestions.clear();
+        try (Stream<SearchDocument> pins = pinRepository.streamSearchDocuments()) {
+            pins.forEach(this::putPin);
+        }
+        boardRepository.findAllSummaries()
+                .forEach(b -> putBoard(new SearchDocument(b.id(), b.name(), null)));
+        userRepository.findAllSummaries()
+                .forEach(u -> putUser(new SearchDocument(u.id(), u.username(), null)));
+        logger.info("Search index built in {} ms: {} pins, {} boards, {} users, {} suggestion keys",
+                (System.nanoTime() - start) / 1_000_000, pinIndex.size(), boardIndex.size(), userIndex.size(),
+                suggestions.size());
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<PinCard> searchPins(String query, int page, int size) {
+        return search(pinIndex, query, page, size, pinRepository::findCardsByIds, PinCard::id);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<BoardSummary> searchBoards(String query, int page, int size) {
+        return search(boardIndex, query, page, size, boardRepository::findSummariesByIds, BoardSummary::id);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<UserSummary> searchUsers(String query, int page, int size) {
+        return search(userIndex, query, page, size, userRepository::findSummariesByIds, UserSummary::id);
+    }
+
+    /**
+     * Arama kutusu için önerileri döndürür (sadece bellekten okunur)
+     */
+    public List<Suggestion> suggest(String prefix) {
+        return suggestions.suggest(prefix, SUGGESTION_LIMIT);
+    }
+
+    // Dizin güncellemeleri commit sonrasına ertelenir; geri alınan bir kayıt dizine girmez
+    public void indexPin(Pin pin) {
+        SearchDocument document = new SearchDocument(pin.getId(), pin.getTitle(), pin.getDescription());
+        AfterCommit.run(() -> putPin(document));
+    }
+
+    public void removePins(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        AfterCommit.run(() -> removed.forEach(id -> {
+            pinIndex.remove(id);
+            suggestions.remove("pin", id);
+        }));
+    }
+
+    public void indexBoard(Board board) {
+        SearchDocument document = new SearchDocument(board.getId(), board.getName(), null);
+        AfterCommit.run(() -> putBoard(document));
+    }
+
+    public void removeBoard(Long id) {
+        AfterCommit.run(() -> {
+            boardIndex.remove(id);
+            suggestions.remove("board", id);
+        });
+    }
+
+    public void indexUser(User user) {
+        SearchDocument document = new SearchDocument(user.getId(), user.getUsername(), null);
+        AfterCommit.run(() -> putUser(document));
+    }
+
+    public void removeUser(Long id) {
+        AfterCommit.run(() -> {
+            userIndex.remove(id);
+            suggestions.remove("user", id);
+        });
+    }
+
+    private void putPin(SearchDocument document) {
+        pinIndex.put(document);
+        suggestions.put("pin", document.id(), document.title());
+    }
+
+    private void putBoard(SearchDocument document) {
+        boardIndex.put(document);
+        suggestions.put("board", document.id(), document.title());
+    }
+
+    private void putUser(SearchDocument document) {
+        userIndex.put(document);
+        suggestions.put("user", document.id(), document.title());
+    }
+
+    private <T> SearchPage<T> search(InvertedIndex index, String query, int page, int size,
+                                     Function<Collection<Long>, List<T>> loader, Function<T, Long> idOf) {
+        int safePage = Math.max(page, 0);
+        // Dizindeki kayıt sayısını aşan sayfa boştur; offset int'i taşıracak kadar büyük sayfalar da buraya düşer
+        long offset = (long) safePage * size;
+        if (offset >= index.size()) {
+            return new SearchPage<>(List.of(), safePage, size, index.search(query, 0, 0).total());
+        }
+        SearchHits hits = index.search(query, (int) offset, size);
+        if (hits.ids().isEmpty()) {
+            return new SearchPage<>(List.of(), safePage, size, hits.total());
+        }
+        // Veritabanı "in" sorgusu sırayı korumaz, dizinin sıralamasına göre yeniden dizilir
+        Map<Long, T> byId = loader.apply(hits.ids()).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SearchPage<>(items, safePage, size, hits.total());
+    }
+}
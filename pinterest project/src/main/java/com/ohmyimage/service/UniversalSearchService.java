@@ -0,0 +1,132 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.dto.BoardSummary;
+import com.ohmyimage.dto.CategoryResult;
+import com.ohmyimage.dto.PinCard;
+import com.ohmyimage.dto.SearchPage;
+import com.ohmyimage.dto.UniversalSearchResult;
+import com.ohmyimage.dto.UserSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Genel arama: kullanıcı, pano ve pin aramaları ayrı bir iş havuzunda aynı anda çalışır,
+// sayfanın süresi üçünün toplamı değil en yavaşı kadar olur. Süre sınırını aşan kategori boş ve
+// "eksik" olarak döner, sayfanın geri kalanı yine gösterilir.
+@Service
+public class UniversalSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniversalSearchService.class);
+
+    // Genel arama sayfasında her kategoride gösterilen sonuç sayısı
+    public static final int TOP_N = 8;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ohmyimage.search.threads:8}")
+    private int searchThreads;
+
+    @Value("${ohmyimage.search.queue-capacity:200}")
+    private int searchQueueCapacity;
+
+    @Value("${ohmyimage.search.timeout-ms:500}")
+    private long timeoutMillis;
+
+    // Sınırlı iş havuzu; işler kısa ve çoğunlukla veritabanı beklediği için
+    // Java 21'de bu havuz sanal thread'li bir executor ile değiştirilebilir
+    private ThreadPoolExecutor searchExecutor;
+
+    @PostConstruct
+    void startSearchWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        searchExecutor = new ThreadPoolExecutor(searchThreads, searchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(searchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "search-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopSearchWorkers() {
+        searchExecutor.shutdownNow();
+    }
+
+    public UniversalSearchResult search(String query) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        CompletableFuture<CategoryResult<UserSummary>> users =
+                submit("users", () -> searchService.searchUsers(query, 0, TOP_N));
+        CompletableFuture<CategoryResult<BoardSummary>> boards =
+                submit("boards", () -> searchService.searchBoards(query, 0, TOP_N));
+        CompletableFuture<CategoryResult<PinCard>> pins =
+                submit("pins", () -> searchService.searchPins(query, 0, TOP_N));
+
+        return new UniversalSearchResult(
+                await("users", users, start, deadline),
+                await("boards", boards, start, deadline),
+                await("pins", pins, start, deadline));
+    }
+
+    private <T> CompletableFuture<CategoryResult<T>> submit(String category, Supplier<SearchPage<T>> search) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                SearchPage<T> page = search.get();
+                return CategoryResult.of(category, page, System.nanoTime() - start);
+            }, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Kalan süre kadar bekler; süre dolarsa veya arama hata verirse kategori eksik olarak döner
+    private <T> CategoryResult<T> await(String category, CompletableFuture<CategoryResult<T>> future,
+                                        long start, long deadline) {
+        String outcome = "error";
+        try {
+            CategoryResult<T> result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            outcome = "complete";
+            return result;
+        } catch (TimeoutException e) {
+            // Çalışan sorgu yarıda kesilmez, sadece sonucu beklenmez
+            future.cancel(false);
+            outcome = "timeout";
+            logger.warn("Search category {} timed out after {} ms", category, timeoutMillis);
+        } catch (ExecutionException e) {
+            logger.warn("Search category {} failed: {}", category, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Kategorinin sayfaya yansıyan süresi (zaman aşımında süre sınırı kadar)
+            Timer.builder("ohmyimage.search")
+                    .tag("category", category)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return CategoryResult.incomplete(category, System.nanoTime() - start);
+    }
+}
@@ -1,8 +1,7 @@
 package com.ohmyimage.service;
 
-import com.ohmyimage.model.Board;
-import com.ohmyimage.model.Comment;
-import com.ohmyimage.model.Pin;
+import com.ohmyimage.dto.UserDeletionReport;
+import com.ohmyimage.dto.UserSummary;
 import com.ohmyimage.model.Role;
 import com.ohmyimage.model.User;
 import com.ohmyimage.repository.BoardRepository;
@@ -10,15 +9,36 @@ import com.ohmyimage.repository.CommentRepository;
 import com.ohmyimage.repository.PasswordResetTokenRepository;
 import com.ohmyimage.repository.PinRepository;
 import com.ohmyimage.repository.UserRepository;
+import com.ohmyimage.security.AuthenticatedUser;
+import com.ohmyimage.security.OwnershipService;
+import com.ohmyimage.security.ResetTokenCache;
+import com.ohmyimage.security.UserDetailsCache;
+import com.ohmyimage.util.AfterCommit;
+import com.ohmyimage.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 @Service
 public class UserService {
@@ -30,6 +50,61 @@ public class UserService {
     @Autowired private CommentRepository commentRepository;
     @Autowired private PinRepository pinRepository;
     @Autowired private BoardRepository boardRepository;
+    @Autowired private SearchService searchService;
+    @Autowired private OwnershipService ownershipService;
+    @Autowired private ResetTokenCache resetTokenCache;
+    @Autowired private UserDetailsCache userDetailsCache;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    // Toplu silmede bir transaction'da silinen en fazla kullanıcı sayısı
+    @Value("${ohmyimage.users.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    @Value("${ohmyimage.users.current-user-cache-size:1000}")
+    private int currentUserCacheSize;
+
+    @Value("${ohmyimage.users.current-user-cache-ttl:30s}")
+    private Duration currentUserCacheTtl;
+
+    // Giriş yapmış kullanıcıların değişmez kopyaları kısa süreli önbellekte tutulur; her sayfa görüntülemesinde
+    // sorgu atılmaz. Anahtar "username:<ad>" veya "email:<e-posta>"; kullanıcı değiştiğinde ilgili kayıtlar silinir.
+    private ExpiringCache<String, AuthenticatedUser> currentUserCache;
+
+    @PostConstruct
+    void createCurrentUserCache() {
+        currentUserCache = new ExpiringCache<>(currentUserCacheSize, currentUserCacheTtl);
+    }
+
+    /**
+     * Authentication'a karşılık gelen kullanıcının kopyasını döndürür (form login, OAuth2 veya diğer); giriş yoksa null
+     */
+    public AuthenticatedUser findCurrentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        // OAuth2 ile giriş yapan kullanıcı e-posta ile bulunur
+        if (principal instanceof OAuth2User oauth2User) {
+            String email = oauth2User.getAttribute("email");
+            return email == null ? null : currentUserCache.get("email:" + email,
+                    key -> snapshot(() -> userRepository.findByEmail(email)));
+        }
+        String name = principal instanceof User user ? user.getUsername() : authentication.getName();
+        return currentUserCache.get("username:" + name, key -> snapshot(() -> userRepository.findByUsername(name)
+                .or(() -> userRepository.findByEmail(name))));
+    }
+
+    // Kopya, roller yüklenebilsin diye kısa bir transaction içinde alınır
+    private AuthenticatedUser snapshot(Supplier<Optional<User>> lookup) {
+        return transactionTemplate.execute(status -> lookup.get().map(AuthenticatedUser::of).orElse(null));
+    }
+
+    // Kullanıcı değiştiğinde önbellekteki kopyaları (giriş önbelleği dahil) commit sonrası silinir
+    private void evictCurrentUser(Long userId) {
+        AfterCommit.run(() -> currentUserCache.invalidateIf(u -> u.id().equals(userId)));
+        userDetailsCache.evictUser(userId);
+    }
 
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
@@ -43,33 +118,41 @@ public class UserService {
         return userRepository.existsByUsername(username);
     }
 
+    @Transactional
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        searchService.indexUser(saved);
+        evictCurrentUser(saved.getId());
+        return saved;
     }
 
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    // Listeleme sayfaları entity yerine özet döndürür (roller yüklenmez, bkz. UserSummary)
+    @Transactional(readOnly = true)
+    public List<UserSummary> findAll() {
+        return userRepository.findAllSummaries();
     }
 
-    // universal search için eklendi
-    public List<User> searchByUsername(String usernamePart) {
-        return userRepository.findByUsernameContainingIgnoreCase(usernamePart);
+    @Transactional(readOnly = true)
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
     }
 
     public void updateRoles(Long userId, Set<Role> roles) {
         userRepository.findById(userId).ifPresent(u -> {
             u.setRoles(roles);
             userRepository.save(u);
+            evictCurrentUser(userId);
         });
     }
 
     public void updatePassword(User user, String newHashedPassword) {
         user.setPassword(newHashedPassword);
         userRepository.save(user);
+        evictCurrentUser(user.getId());
         logger.info("Password updated for user: {}", user.getUsername());
         // opsiyonel: eski tokenları sil
         tokenRepository.findByUser(user).forEach(tokenRepository::delete);
@@ -78,30 +161,69 @@ public class UserService {
     @Transactional
     public void deleteById(Long userId) {
         logger.info("Deleting user with ID: {}", userId);
-        User user = userRepository.findById(userId)
+        UserSummary user = userRepository.findSummaryById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found ID: " + userId));
 
-        if ("admin".equals(user.getUsername())) {
+        if ("admin".equals(user.username())) {
             throw new RuntimeException("Ana admin hesabı silinemez!");
         }
 
-        // 1) tokenları sil
-        tokenRepository.findByUser(user).forEach(tokenRepository::delete);
+        deleteUserRows(List.of(userId), new LinkedHashMap<>());
+        logger.info("User deleted: {}", userId);
+    }
 
-        // 2) yorum sahipliğini temizle
-        List<Comment> comments = commentRepository.findByUser(user);
-        comments.forEach(c -> { c.setUser(null); commentRepository.save(c); });
+    /**
+     * Kullanıcıları toplu siler. Her grup (varsayılan 500 kullanıcı) kendi kısa transaction'ında,
+     * satır satır değil birkaç toplu sorguyla silinir; ana admin hesabı ve bulunamayan id'ler atlanır.
+     */
+    public UserDeletionReport deleteUsers(Collection<Long> userIds) {
+        long start = System.nanoTime();
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        List<String> skipped = new ArrayList<>();
+        List<Long> deletable = new ArrayList<>();
+        for (UserSummary user : userRepository.findSummariesByIds(requested)) {
+            requested.remove(user.id());
+            if ("admin".equals(user.username())) {
+                skipped.add(user.username() + " (ana admin hesabı)");
+            } else {
+                deletable.add(user.id());
+            }
+        }
+        requested.forEach(id -> skipped.add("#" + id + " (bulunamadı)"));
+
+        Map<String, Long> stepMillis = new LinkedHashMap<>();
+        for (int from = 0; from < deletable.size(); from += deleteBatchSize) {
+            List<Long> chunk = deletable.subList(from, Math.min(from + deleteBatchSize, deletable.size()));
+            transactionTemplate.executeWithoutResult(status -> deleteUserRows(chunk, stepMillis));
+        }
 
-        // 3) pin sahipliğini temizle
-        List<Pin> pins = pinRepository.findByOwner(user);
-        pins.forEach(p -> { p.setOwner(null); pinRepository.save(p); });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Batch deleted {} users ({} skipped) in {} ms: {}",
+                deletable.size(), skipped.size(), elapsedMillis, stepMillis);
+        return new UserDeletionReport(deletable.size(), skipped, stepMillis, elapsedMillis);
+    }
 
-        // 4) board sahipliğini temizle
-        List<Board> boards = boardRepository.findByOwner(user);
-        boards.forEach(b -> { b.setOwner(null); boardRepository.save(b); });
+    // Kullanıcıların tüm izlerini toplu sorgularla temizler; çağıranın transaction'ında çalışır.
+    // Yorum, pin ve panolar silinmez, "Silinmiş Kullanıcı"ya ait olarak kalır.
+    private void deleteUserRows(List<Long> userIds, Map<String, Long> stepMillis) {
+        timed(stepMillis, "tokens", () -> tokenRepository.deleteByUserIds(userIds));
+        timed(stepMillis, "comments", () -> commentRepository.detachFromUsers(userIds));
+        timed(stepMillis, "pins", () -> pinRepository.detachFromOwners(userIds));
+        timed(stepMillis, "boards", () -> boardRepository.detachFromOwners(userIds));
+        timed(stepMillis, "roles", () -> userRepository.deleteRolesByUserIds(userIds));
+        timed(stepMillis, "users", () -> userRepository.deleteByIdIn(userIds));
+
+        Set<Long> deleted = Set.copyOf(userIds);
+        deleted.forEach(searchService::removeUser);
+        AfterCommit.run(() -> currentUserCache.invalidateIf(u -> deleted.contains(u.id())));
+        ownershipService.evictAll(); // Kullanıcıların pin, pano ve yorumları artık sahipsiz
+        resetTokenCache.evictUsers(deleted);
+        userDetailsCache.evictUsers(deleted);
+    }
 
-        // 5) kullanıcıyı sil
-        userRepository.delete(user);
-        logger.info("User deleted: {}", userId);
+    private static void timed(Map<String, Long> stepMillis, String step, IntSupplier statement) {
+        long start = System.nanoTime();
+        statement.getAsInt();
+        stepMillis.merge(step, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Long::sum);
     }
-}
\ No newline at end of file
+}
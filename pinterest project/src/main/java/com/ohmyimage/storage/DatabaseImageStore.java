@@ -0,0 +1,151 @@
+package com.ohmyimage.storage;
+
+import com.ohmyimage.repository.PinImageRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+// Görselleri PostgreSQL'deki pin_image tablosunda saklar (varsayılan backend)
+public class DatabaseImageStore implements ImageStore {
+
+    // Görsel okunurken tek seferde heap'e alınan en büyük parça
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private final PinImageRepository pinImageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public DatabaseImageStore(PinImageRepository pinImageRepository, JdbcTemplate jdbcTemplate) {
+        this(pinImageRepository, jdbcTemplate, CHUNK_SIZE);
+    }
+
+    DatabaseImageStore(PinImageRepository pinImageRepository, JdbcTemplate jdbcTemplate, int chunkSize) {
+        this.pinImageRepository = pinImageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void put(String key, String contentType, byte[] data) {
+        pinImageRepository.insertIfAbsent(key, contentType, data.length, data, LocalDateTime.now());
+    }
+
+    // Dosya sürücüye akış olarak verilir (setBinaryStream), byte[]'a okunmaz.
+    // Çağıranın transaction'ı varsa aynı bağlantıda çalışır.
+    @Override
+    public void put(String key, String contentType, Path file) throws IOException {
+        long size = Files.size(file);
+        try (InputStream in = Files.newInputStream(file)) {
+            jdbcTemplate.update("insert into pin_image (image_key, content_type, size, data, created_at) " +
+                    "values (?, ?, ?, ?, ?) on conflict (image_key) do nothing", ps -> {
+                ps.setString(1, key);
+                ps.setString(2, contentType);
+                ps.setLong(3, size);
+                ps.setBinaryStream(4, in, size);
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            });
+        }
+    }
+
+    // İçerik parça parça okunur (bkz. ChunkedImageInputStream); görselin tamamı heap'e alınmaz
+    @Override
+    public Optional<StoredImage> open(String key) {
+        return pinImageRepository.findSizeByKey(key).map(size -> new StoredImage() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public InputStream openStream() {
+                return new ChunkedImageInputStream(key, size);
+            }
+        });
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return pinImageRepository.existsById(key);
+    }
+
+    @Override
+    public OptionalLong sizeOf(String key) {
+        return pinImageRepository.findSizeByKey(key).map(OptionalLong::of).orElse(OptionalLong.empty());
+    }
+
+    @Override
+    public void delete(String key) {
+        pinImageRepository.deleteByKey(key);
+    }
+
+    // PostgreSQL sürücüsü bytea kolonunu getBinaryStream'de de tamamen belleğe alır; bu yüzden içerik
+    // substring ile chunkSize'lık parçalar halinde okunur. Her parça ayrı bir sorgudur, okuma sürerken
+    // (ör. yavaş bir istemciye yazarken) bağlantı tutulmaz. İçerik adresli olduğu için parçalar arasında değişmez.
+    private class ChunkedImageInputStream extends InputStream {
+        private final String key;
+        private final long size;
+        private long position;
+        private byte[] chunk = new byte[0];
+        private int chunkPosition;
+
+        ChunkedImageInputStream(String key, long size) {
+            this.key = key;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[chunkPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, offset, count);
+            chunkPosition += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return chunk.length - chunkPosition;
+        }
+
+        // Tampon bittiyse sıradaki parçayı okur; içeriğin sonundaysa false döner
+        private boolean fill() throws IOException {
+            if (chunkPosition < chunk.length) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            int length = (int) Math.min(chunkSize, size - position);
+            List<byte[]> rows = jdbcTemplate.query("select substring(data from ? for ?) from pin_image where image_key = ?",
+                    (rs, rowNum) -> rs.getBytes(1), position + 1, length, key);
+            if (rows.isEmpty() || rows.get(0) == null || rows.get(0).length == 0) {
+                throw new IOException("Görsel okunurken silindi: " + key);
+            }
+            chunk = rows.get(0);
+            chunkPosition = 0;
+            position += chunk.length;
+            return true;
+        }
+    }
+}
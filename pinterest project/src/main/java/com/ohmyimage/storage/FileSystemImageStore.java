@@ -0,0 +1,150 @@
+package com.ohmyimage.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+
+// Görselleri disk üzerinde içerik adresli olarak saklar: <kök>/ab/cd/abcd...
+// Yazma işlemi geçici dosya + atomik rename ile yapılır, yarım yazılmış dosya asla okunmaz.
+// Okuma FileChannel üzerinden yapılır; görselin tamamı heap'e kopyalanmaz.
+// Diskte bulunmayan anahtarlar fallback store'dan (veritabanı) okunup diske yazılır,
+// böylece veritabanından diske geçiş sırasında servis kesilmez.
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemImageStore.class);
+
+    // Anahtarlar dosya adı olarak kullanıldığı için sadece güvenli karakterlere izin verilir
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-z_]{8,100}");
+
+    private final Path root;
+    private final ImageStore fallback;
+
+    public FileSystemImageStore(Path root, ImageStore fallback) throws IOException {
+        this.root = Files.createDirectories(root.toAbsolutePath());
+        this.fallback = fallback;
+        logger.info("Filesystem image store at {}", this.root);
+    }
+
+    @Override
+    public void put(String key, String contentType, byte[] data) throws IOException {
+        write(key, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    // Kaynak başka bir dosya sisteminde olabilir; kanaldan kanala kopyalanır (heap'e alınmaz)
+    @Override
+    public void put(String key, String contentType, Path file) throws IOException {
+        write(key, channel -> {
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, channel);
+                }
+            }
+        });
+    }
+
+    private interface ContentWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    // İçeriği hedefin yanındaki geçici dosyaya yazar ve atomik olarak yerine taşır
+    private void write(String key, ContentWriter writer) throws IOException {
+        Path target = pathFor(key);
+        if (Files.exists(target)) {
+            return; // Aynı içerik zaten var; silinmesini ImageService süpürme adayını erteleyerek önler
+        }
+        Path dir = Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                writer.writeTo(channel);
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Aynı içerik eş zamanlı olarak başka bir istek tarafından yazıldı
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> open(String key) throws IOException {
+        Path path = pathFor(key);
+        if (!Files.exists(path)) {
+            return openFromFallback(key);
+        }
+        long size = Files.size(path);
+        return Optional.of(new StoredImage() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public InputStream openStream() throws IOException {
+                return Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ));
+            }
+        });
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathFor(key));
+    }
+
+    @Override
+    public OptionalLong sizeOf(String key) throws IOException {
+        Path path = pathFor(key);
+        if (Files.exists(path)) {
+            return OptionalLong.of(Files.size(path));
+        }
+        return fallback != null ? fallback.sizeOf(key) : OptionalLong.empty();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(pathFor(key));
+        if (fallback != null) {
+            fallback.delete(key);
+        }
+    }
+
+    private Optional<StoredImage> openFromFallback(String key) throws IOException {
+        if (fallback == null) {
+            return Optional.empty();
+        }
+        Optional<StoredImage> stored = fallback.open(key);
+        if (stored.isPresent()) {
+            logger.debug("Image {} served from fallback store, copying to disk", key);
+            // Akış doğrudan geçici dosyaya yazılır; yanıt diske taşınan dosyanın kanalından verilir
+            try (InputStream in = stored.get().openStream()) {
+                write(key, channel -> in.transferTo(Channels.newOutputStream(channel)));
+            }
+            return open(key);
+        }
+        return Optional.empty();
+    }
+
+    Path pathFor(String key) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Geçersiz görsel anahtarı: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
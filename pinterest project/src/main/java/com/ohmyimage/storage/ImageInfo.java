@@ -0,0 +1,5 @@
+package com.ohmyimage.storage;
+
+// Saklanan bir görselin anahtarı ve meta verisi
+public record ImageInfo(String key, String contentType, long size) {
+}
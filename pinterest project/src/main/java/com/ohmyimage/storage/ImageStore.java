@@ -0,0 +1,25 @@
+package com.ohmyimage.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+// Görsel içeriklerinin saklandığı yer. Anahtarlar içerik özetidir (SHA-256),
+// bu yüzden aynı anahtarla tekrar yazmak içeriği değiştirmez; uygulamalar var olan anahtarı atlar.
+public interface ImageStore {
+
+    void put(String key, String contentType, byte[] data) throws IOException;
+
+    // İçeriği dosyadan akıtarak yazar (yüklemeler için); dosya heap'e okunmaz ve silinmez
+    void put(String key, String contentType, Path file) throws IOException;
+
+    Optional<StoredImage> open(String key) throws IOException;
+
+    boolean exists(String key);
+
+    // İçeriği açmadan boyutunu döndürür; anahtar yoksa boş döner
+    OptionalLong sizeOf(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+}
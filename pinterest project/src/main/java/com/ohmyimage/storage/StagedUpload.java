@@ -0,0 +1,101 @@
+package com.ohmyimage.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+// Yüklenen görselin geçici dosyaya akıtılmış hali. Akış okunurken aynı anda SHA-256 özeti hesaplanır,
+// ilk byte'lar (format tespiti için) saklanır ve boyut sınırı kontrol edilir; görselin tamamı heap'e alınmaz.
+// close() geçici dosyayı siler, try-with-resources ile kullanılır.
+public final class StagedUpload implements AutoCloseable {
+
+    // Format tespiti için saklanan ilk byte sayısı (bkz. ImageService.detectContentType)
+    public static final int HEADER_LENGTH = 16;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final String sha256;
+    private final long size;
+    private final byte[] header;
+
+    private StagedUpload(Path file, String sha256, long size, byte[] header) {
+        this.file = file;
+        this.sha256 = sha256;
+        this.size = size;
+        this.header = header;
+    }
+
+    /**
+     * Akışı dir altındaki geçici bir dosyaya yazar. Akış maxBytes'tan uzunsa dosya silinir ve
+     * IllegalArgumentException fırlatılır. Akışı kapatmak çağıranın işidir.
+     */
+    public static StagedUpload stage(InputStream in, Path dir, long maxBytes) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+        Path file = Files.createTempFile(dir, "upload-", ".tmp");
+        byte[] header = new byte[HEADER_LENGTH];
+        int headerLength = 0;
+        long size = 0;
+        // DigestInputStream kapatılmaz, aksi halde çağıranın akışı da (ör. ZipInputStream) kapanır
+        DigestInputStream digesting = new DigestInputStream(in, digest);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             OutputStream out = Channels.newOutputStream(channel)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = digesting.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new IllegalArgumentException("Görsel çok büyük (en fazla " + (maxBytes / (1024 * 1024)) + " MB)");
+                }
+                if (headerLength < HEADER_LENGTH) {
+                    int copied = Math.min(read, HEADER_LENGTH - headerLength);
+                    System.arraycopy(buffer, 0, header, headerLength, copied);
+                    headerLength += copied;
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new StagedUpload(file, HexFormat.of().formatHex(digest.digest()), size,
+                Arrays.copyOf(header, headerLength));
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public String sha256() {
+        return sha256;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Dosyanın ilk (en fazla HEADER_LENGTH) byte'ı
+    public byte[] header() {
+        return header.clone();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
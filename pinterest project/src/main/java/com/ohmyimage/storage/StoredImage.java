@@ -0,0 +1,12 @@
+package com.ohmyimage.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// ImageStore'dan okunan tek bir görsel
+public interface StoredImage {
+
+    long size();
+
+    InputStream openStream() throws IOException;
+}
@@ -0,0 +1,46 @@
+package com.ohmyimage.util;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// İçeriği ancak yanıt gövdesi yazılırken açan Resource.
+// 304 (Not Modified) yanıtlarında ve HEAD isteklerinde içerik hiç okunmaz.
+public class DeferredResource extends AbstractResource {
+
+    @FunctionalInterface
+    public interface ContentOpener {
+        InputStream open() throws IOException;
+    }
+
+    private final String description;
+    private final long length;
+    private final ContentOpener opener;
+
+    public DeferredResource(String description, long length, ContentOpener opener) {
+        this.description = description;
+        this.length = length;
+        this.opener = opener;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return opener.open();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ohmyimage.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Boyutu sınırlı (en az kullanılan atılır) ve kayıtları belirli süre sonra geçersiz olan basit bellek içi önbellek.
+// null değerler önbelleğe alınmaz.
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Her geçersiz kılmada artar; yükleme sırasında geçersiz kılınan eski değer önbelleğe geri yazılmaz
+    private long generation;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Önbellekteki değeri döndürür; yoksa veya süresi dolduysa loader ile yükleyip önbelleğe alır.
+     * Yükleme kilit dışında yapılır.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    // Süresi dolmamış değer, yoksa null; yükleme yapılmaz
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.value();
+        }
+        entries.remove(key);
+        return null;
+    }
+
+    /**
+     * Dışarıda yüklenmiş değeri önbelleğe yazar. loadGeneration yüklemeye başlamadan önce generation() ile
+     * alınmalıdır; arada geçersiz kılma olduysa değer eskimiş olabileceği için yazılmaz.
+     */
+    public synchronized void put(K key, V value, long loadGeneration) {
+        if (value != null && generation == loadGeneration) {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        generation++;
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
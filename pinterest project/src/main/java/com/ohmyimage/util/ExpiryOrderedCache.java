@@ -0,0 +1,120 @@
+package com.ohmyimage.util;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Her kaydın kendi bitiş zamanı olan bellek içi önbellek (ör. süreli token'lar). Kayıt, değerinden okunan
+// bitiş zamanı geçtiği anda görünmez olur; kayıtlar bitiş sırasına göre de tutulduğu için süresi dolanlar
+// baştan ucuzca temizlenir. Boyut aşılırsa en erken bitecek kayıt atılır. null değerler önbelleğe alınmaz.
+public class ExpiryOrderedCache<K, V> {
+
+    private record Entry<K, V>(K key, V value, LocalDateTime expiresAt, long sequence) {
+    }
+
+    private final int maxSize;
+    private final Function<V, LocalDateTime> expiryOf;
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    private final TreeSet<Entry<K, V>> byExpiry = new TreeSet<>(
+            Comparator.<Entry<K, V>, LocalDateTime>comparing(Entry::expiresAt).thenComparingLong(Entry::sequence));
+
+    private long sequence;
+
+    // Her geçersiz kılmada artar; yükleme sırasında geçersiz kılınan eski değer önbelleğe geri yazılmaz
+    private long generation;
+
+    public ExpiryOrderedCache(int maxSize, Function<V, LocalDateTime> expiryOf) {
+        this.maxSize = maxSize;
+        this.expiryOf = expiryOf;
+    }
+
+    /**
+     * Önbellekteki süresi dolmamış değeri döndürür; yoksa loader ile yükleyip önbelleğe alır.
+     * Yükleme kilit dışında yapılır, süresi zaten dolmuş değer döndürülmez.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            purgeExpired(now);
+            Entry<K, V> entry = entries.get(key);
+            if (entry != null) {
+                return entry.value();
+            }
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        if (value == null || !expiryOf.apply(value).isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                store(key, value);
+            }
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        generation++;
+        remove(key);
+        if (expiryOf.apply(value).isAfter(LocalDateTime.now())) {
+            store(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        generation++;
+        entries.values().removeIf(entry -> {
+            if (predicate.test(entry.value())) {
+                byExpiry.remove(entry);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Süresi dolmuş kayıtları siler, silinen sayıyı döndürür
+    public synchronized int purgeExpired() {
+        return purgeExpired(LocalDateTime.now());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private int purgeExpired(LocalDateTime now) {
+        int purged = 0;
+        while (!byExpiry.isEmpty() && !byExpiry.first().expiresAt().isAfter(now)) {
+            entries.remove(byExpiry.pollFirst().key());
+            purged++;
+        }
+        return purged;
+    }
+
+    private void store(K key, V value) {
+        remove(key);
+        Entry<K, V> entry = new Entry<>(key, value, expiryOf.apply(value), sequence++);
+        entries.put(key, entry);
+        byExpiry.add(entry);
+        while (entries.size() > maxSize) {
+            entries.remove(byExpiry.pollFirst().key());
+        }
+    }
+
+    private void remove(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry != null) {
+            byExpiry.remove(entry);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+// Ana sayfa akışı için sonsuz kaydırma:
+// sayfanın sonundaki "Daha fazla" bağlantısı görünmeye yaklaşınca bir sonraki sayfa /feed'den alınıp eklenir.
+document.addEventListener('DOMContentLoaded', function () {
+    var feed = document.getElementById('feed');
+    if (!feed || !('IntersectionObserver' in window)) {
+        return; // Eski tarayıcılarda "Daha fazla" bağlantısı normal şekilde çalışır
+    }
+
+    var loading = false;
+    var observer = new IntersectionObserver(function (entries) {
+        entries.forEach(function (entry) {
+            if (entry.isIntersecting) {
+                loadNext(entry.target);
+            }
+        });
+    }, { rootMargin: '800px 0px' });
+
+    function observeSentinel() {
+        var sentinel = feed.querySelector('.feed-sentinel');
+        if (sentinel) {
+            observer.observe(sentinel);
+        }
+    }
+
+    function loadNext(sentinel) {
+        if (loading) {
+            return;
+        }
+        loading = true;
+        observer.unobserve(sentinel);
+        fetch(sentinel.dataset.next, { credentials: 'same-origin' })
+            .then(function (response) {
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return response.text();
+            })
+            .then(function (html) {
+                sentinel.remove();
+                feed.insertAdjacentHTML('beforeend', html);
+                observeSentinel();
+            })
+            .catch(function () {
+                observer.observe(sentinel); // Hata olursa bir sonraki kaydırmada tekrar denenir
+            })
+            .finally(function () {
+                loading = false;
+            });
+    }
+
+    observeSentinel();
+});
+
+// Arama kutusu önerileri: yazarken /search/suggest'ten kullanıcı, pano ve pin önerileri gösterilir
+document.addEventListener('DOMContentLoaded', function () {
+    var input = document.querySelector('#searchForm input[name="q"]');
+    var list = document.getElementById('searchSuggestions');
+    if (!input || !list || !input.dataset.suggest) {
+        return;
+    }
+
+    var TYPE_LABELS = { user: 'kullanıcı', board: 'pano', pin: 'pin' };
+    var contextPath = input.dataset.suggest.replace(/\/search\/suggest$/, '');
+    var timer = null;
+    var lastQuery = '';
+    var active = -1;
+
+    function urlFor(suggestion) {
+        if (suggestion.type === 'board') {
+            return contextPath + '/boards/' + suggestion.id;
+        }
+        if (suggestion.type === 'pin') {
+            return contextPath + '/pins/' + suggestion.id;
+        }
+        return contextPath + '/search?q=' + encodeURIComponent(suggestion.label);
+    }
+
+    function hide() {
+        list.hidden = true;
+        list.innerHTML = '';
+        active = -1;
+    }
+
+    function render(suggestions) {
+        list.innerHTML = '';
+        active = -1;
+        suggestions.forEach(function (suggestion) {
+            var link = document.createElement('a');
+            link.href = urlFor(suggestion);
+            link.textContent = suggestion.label;
+            var type = document.createElement('small');
+            type.textContent = TYPE_LABELS[suggestion.type] || suggestion.type;
+            link.appendChild(type);
+            var item = document.createElement('li');
+            item.appendChild(link);
+            list.appendChild(item);
+        });
+        list.hidden = suggestions.length === 0;
+    }
+
+    function load(query) {
+        fetch(input.dataset.suggest + '?q=' + encodeURIComponent(query), { credentials: 'same-origin' })
+            .then(function (response) {
+                return response.ok ? response.json() : [];
+            })
+            .then(function (suggestions) {
+                if (query === lastQuery) { // Geç gelen eski cevaplar yok sayılır
+                    render(suggestions);
+                }
+            })
+            .catch(hide);
+    }
+
+    input.addEventListener('input', function () {
+        var query = input.value.trim();
+        lastQuery = query;
+        clearTimeout(timer);
+        if (!query) {
+            hide();
+            return;
+        }
+        timer = setTimeout(function () { load(query); }, 100);
+    });
+
+    // Ok tuşlarıyla gezinme, Enter ile seçim, Escape ile kapatma
+    input.addEventListener('keydown', function (event) {
+        var links = list.querySelectorAll('a');
+        if (list.hidden || links.length === 0) {
+            return;
+        }
+        if (event.key === 'ArrowDown' || event.key === 'ArrowUp') {
+            event.preventDefault();
+            if (active >= 0) {
+                links[active].classList.remove('active');
+            }
+            active = (active + (event.key === 'ArrowDown' ? 1 : links.length - 1)) % links.length;
+            links[active].classList.add('active');
+        } else if (event.key === 'Enter' && active >= 0) {
+            event.preventDefault();
+            window.location.href = links[active].href;
+        } else if (event.key === 'Escape') {
+            hide();
+        }
+    });
+
+    input.addEventListener('blur', function () {
+        setTimeout(hide, 150); // Öneriye tıklama, liste kapanmadan önce işlensin
+    });
+});
+
+// Pin sayfasında "Daha fazla yorum": bir sonraki yorum sayfası /pins/{id}/comments'ten alınıp listeye eklenir
+document.addEventListener('DOMContentLoaded', function () {
+    var comments = document.getElementById('comments');
+    if (!comments) {
+        return;
+    }
+
+    comments.addEventListener('click', function (event) {
+        var more = event.target.closest('.comments-more');
+        if (!more || !more.dataset.next) {
+            return; // Bağlantı normal şekilde çalışır
+        }
+        event.preventDefault();
+        if (more.classList.contains('loading')) {
+            return;
+        }
+        more.classList.add('loading');
+        fetch(more.dataset.next, { credentials: 'same-origin' })
+            .then(function (response) {
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return response.text();
+            })
+            .then(function (html) {
+                more.remove();
+                comments.insertAdjacentHTML('beforeend', html);
+            })
+            .catch(function () {
+                more.classList.remove('loading'); // Tekrar tıklanabilir
+            });
+    });
+});
@@ -0,0 +1,34 @@
+package com.ohmyimage.config;
+
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sağlık kontrolü herkese açık; metrikler (Prometheus dahil) sadece admin
+class ActuatorSecurityTest extends QueryCountTest {
+
+    @Test
+    void healthIsPublic() throws Exception {
+        // Genel sağlık durumu testte kapalı SMTP yüzünden DOWN olur; canlılık probu ona bakmaz
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void metricsAreForbiddenToRegularUsers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(user("user1"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("user1"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void metricsAreAvailableToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").roles("ADMIN"))).andExpect(status().isOk());
+    }
+}
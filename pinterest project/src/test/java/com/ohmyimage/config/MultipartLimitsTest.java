@@ -0,0 +1,130 @@
+package com.ohmyimage.config;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.User;
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.RoleRepository;
+import com.ohmyimage.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Multipart sınırları servlet kaydına bağlı olduğundan MockMvc yerine gerçek Tomcat üzerinde denenir:
+// genel sınır (1MB) aşan bir görsel reddedilir, aynı boyuttaki arşiv /pins/import yolunda kabul edilir.
+// Ayrı veritabanı: bu context'in şeması diğer testlerin veri setini silmesin
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:multipart;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.servlet.multipart.max-file-size=1MB",
+        "spring.servlet.multipart.max-request-size=1MB"
+})
+@ActiveProfiles("test")
+class MultipartLimitsTest {
+
+    private static final String BOUNDARY = "multipartlimitstest";
+    private static final int BODY_SIZE = 1_500_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+    private Board board;
+
+    @BeforeEach
+    void login() throws Exception {
+        User user = userRepository.findByUsername("uploader").orElseGet(() -> userRepository.save(User.builder()
+                .username("uploader")
+                .email("uploader@example.com")
+                .password(passwordEncoder.encode("password"))
+                .roles(Set.of(roleRepository.findByName("ROLE_USER").orElseThrow()))
+                .build()));
+        board = boardRepository.save(Board.builder().name("uploader board").owner(user).build());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=uploader&password=password"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(302, response.statusCode());
+        assertTrue(!response.headers().firstValue("Location").orElse("").contains("error"), "giriş başarısız");
+    }
+
+    @Test
+    void importAcceptsArchivesAboveTheGlobalLimit() throws Exception {
+        HttpResponse<String> response = post("/pins/import", "archive", "pins.zip", "application/zip", zip(BODY_SIZE));
+
+        assertEquals(302, response.statusCode());
+        assertTrue(response.headers().firstValue("Location").orElse("").contains("/pins/import/"),
+                "içe aktarma işi başlamadı: " + response.headers().map());
+    }
+
+    @Test
+    void otherUploadsKeepTheGlobalLimit() throws Exception {
+        HttpResponse<String> response = post("/pins/create", "image", "large.png", "image/png", noise(BODY_SIZE));
+
+        assertNotEquals(302, response.statusCode(), "genel sınırı aşan yükleme kabul edildi");
+    }
+
+    private HttpResponse<String> post(String path, String field, String filename, String contentType, byte[] file)
+            throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"boardId\"\r\n\r\n" + board.getId() + "\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"title\"\r\n\r\nbüyük dosya\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return client.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Sıkışmayan içerik: arşiv boyutu yaklaşık içerik boyutu kadar olur
+    private static byte[] zip(int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + 1024);
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("noise.png"));
+            zip.write(noise(size));
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] noise(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        return bytes;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest extends QueryCountTest {
+
+    @Test
+    void loginAndRegisterPagesDoNotTouchTheDatabase() throws Exception {
+        assertWithin(get("/login"), status().isOk(), 0, 0, 0);
+        assertWithin(get("/register"), status().isOk(), 0, 0, 0);
+    }
+
+    @Test
+    void forgotPasswordQueuesTheMailInsteadOfSendingIt() throws Exception {
+        // Kullanıcı, eski token'lar, yeni token ve outbox kaydı; SMTP beklenmez
+        assertWithin(post("/forgot-password").param("email", "user1@example.com"), status().isOk(),
+                10, 10, 4_000);
+    }
+}
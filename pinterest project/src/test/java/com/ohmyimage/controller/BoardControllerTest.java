@@ -0,0 +1,33 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.support.QueryCountTest;
+import com.ohmyimage.support.TestDataset;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BoardControllerTest extends QueryCountTest {
+
+    @Test
+    void boardListUsesStoredPinCounts() throws Exception {
+        // Pin sayıları sayaç sütunundan gelir; pano başına count sorgusu yok
+        assertWithin(get("/boards").with(user(dataset.largestBoardOwner())), status().isOk(),
+                4, TestDataset.BOARDS_PER_USER + 5, 4_000);
+    }
+
+    @Test
+    void largestBoardLoadsItsPinCardsInOneQuery() throws Exception {
+        // Panonun tüm pinleri tek sorguda gelir; pin sayısı arttıkça sorgu sayısı artmaz
+        assertWithin(get("/boards/{id}", dataset.largestBoardId()).with(user(dataset.largestBoardOwner())),
+                status().isOk(), 6, TestDataset.PINS + 10, 40_000);
+    }
+
+    @Test
+    void boardFormsDoNotLoadPins() throws Exception {
+        assertWithin(get("/boards/create").with(user(dataset.largestBoardOwner())), status().isOk(), 3, 5, 2_000);
+        assertWithin(get("/boards/{id}/edit", dataset.largestBoardId()).with(user(dataset.largestBoardOwner())),
+                status().isOk(), 5, 5, 2_000);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.service.PinService;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MainControllerTest extends QueryCountTest {
+
+    @Autowired
+    private PinService pinService;
+
+    @Test
+    void homeFeedIsOnePageQuery() throws Exception {
+        // Pin kartları tek sorguda; görseller ve sahipler ayrıca yüklenmez
+        assertWithin(get("/"), status().isOk(), 3, PinService.FEED_PAGE_SIZE + 2, 8_000);
+    }
+
+    @Test
+    void homeFeedForSignedInUserAddsOnlyTheUserLookup() throws Exception {
+        assertWithin(get("/").with(user("user1")), status().isOk(), 6, PinService.FEED_PAGE_SIZE + 8, 10_000);
+    }
+
+    @Test
+    void nextFeedPageIsOnePageQuery() throws Exception {
+        String cursor = pinService.findFeedPage(null).nextCursor();
+
+        assertWithin(get("/feed").param("cursor", cursor), status().isOk(), 3, PinService.FEED_PAGE_SIZE + 2, 8_000);
+    }
+}
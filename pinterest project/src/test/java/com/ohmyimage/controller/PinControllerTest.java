@@ -0,0 +1,75 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.service.CommentService;
+import com.ohmyimage.service.SearchService;
+import com.ohmyimage.support.JdbcCounter;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PinControllerTest extends QueryCountTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    void pinPageLoadsOnlyTheFirstCommentPage() throws Exception {
+        // Pin, sahibi ve panosu + ilk yorum sayfası; yorum sayısından bağımsız
+        assertWithin(get("/pins/{id}", dataset.popularPinId()), status().isOk(),
+                8, CommentService.PAGE_SIZE + 10, 16_000);
+    }
+
+    @Test
+    void pinPageForOwnerStaysWithinTheSameBudget() throws Exception {
+        assertWithin(get("/pins/{id}", dataset.popularPinId()).with(user(dataset.popularPinOwner())), status().isOk(),
+                10, CommentService.PAGE_SIZE + 12, 16_000);
+    }
+
+    @Test
+    void nextCommentPageIsOneQuery() throws Exception {
+        String cursor = commentService.findPage(dataset.popularPinId(), null).nextCursor();
+
+        assertWithin(get("/pins/{id}/comments", dataset.popularPinId()).param("cursor", cursor), status().isOk(),
+                3, CommentService.PAGE_SIZE + 2, 8_000);
+    }
+
+    @Test
+    void imageIsStreamedFromTheStoreNotTheDatabase() throws Exception {
+        // Sadece pin meta verisi okunur; görselin kendisi veritabanından geçmez
+        JdbcCounter.Usage usage = assertWithin(get("/pins/{id}/image", dataset.popularPinId()), status().isOk(),
+                3, 5, 4_000);
+        assertTrue(usage.bytes() < dataset.imageSize() / 10);
+    }
+
+    @Test
+    void pinSearchLoadsOneResultPage() throws Exception {
+        assertWithin(get("/pins/search").param("query", "manzara"), status().isOk(),
+                4, 2 * SearchService.PAGE_SIZE + 5, 12_000);
+    }
+
+    @Test
+    void createFormLoadsOnlyTheUsersBoards() throws Exception {
+        assertWithin(get("/pins/create").with(user(dataset.largestBoardOwner())), status().isOk(),
+                5, 15, 4_000);
+    }
+
+    @Test
+    void editFormLoadsThePinAndTheOwnersBoards() throws Exception {
+        assertWithin(get("/pins/{id}/edit", dataset.popularPinId()).with(user(dataset.popularPinOwner())),
+                status().isOk(), 8, 20, 6_000);
+    }
+
+    @Test
+    void addingACommentDoesNotReloadTheComments() throws Exception {
+        assertWithin(post("/pins/{id}/comments", dataset.popularPinId())
+                        .param("text", "Güzel pin")
+                        .with(user(dataset.largestBoardOwner())),
+                status().is3xxRedirection(), 8, 10, 4_000);
+    }
+}
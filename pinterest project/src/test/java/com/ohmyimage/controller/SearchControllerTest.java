@@ -0,0 +1,38 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.service.SearchService;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SearchControllerTest extends QueryCountTest {
+
+    @Test
+    void universalSearchIsOneQueryPerCategory() throws Exception {
+        assertWithin(get("/search").param("q", "manzara"), status().isOk(), 6, 60, 16_000);
+    }
+
+    @Test
+    void categoryPageLoadsOneResultPage() throws Exception {
+        assertWithin(get("/search/users").param("q", "user"), status().isOk(),
+                3, SearchService.PAGE_SIZE + 2, 4_000);
+    }
+
+    @Test
+    void pageBeyondTheResultsIsEmpty() throws Exception {
+        // page * PAGE_SIZE int'i taşırır; sonuç sorgusu yapılmadan boş sayfa döner
+        assertWithin(get("/pins/search").param("query", "manzara").param("page", "107374183"),
+                status().isOk(), 2, 2, 1_000);
+        mockMvc.perform(get("/pins/search").param("query", "manzara").param("page", "107374183"))
+                .andExpect(model().attribute("pins", empty()));
+    }
+
+    @Test
+    void suggestionsAreServedFromTheIndex() throws Exception {
+        assertWithin(get("/search/suggest").param("q", "ma"), status().isOk(), 0, 0, 0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ohmyimage.controller;
+
+import com.ohmyimage.support.QueryCountTest;
+import com.ohmyimage.support.TestDataset;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTest extends QueryCountTest {
+
+    @Test
+    void profileLoadsBoardSummariesWithoutPins() throws Exception {
+        assertWithin(get("/profile").with(user(dataset.largestBoardOwner())), status().isOk(),
+                4, TestDataset.BOARDS_PER_USER + 5, 4_000);
+    }
+
+    @Test
+    void adminUserListIsOneQueryRegardlessOfRoles() throws Exception {
+        // Kullanıcı başına rol sorgusu yok: tek özet sorgusu
+        assertWithin(get("/admin/users").with(user("admin").roles("ADMIN")), status().isOk(),
+                4, TestDataset.USERS + 10, 12_000);
+    }
+
+    @Test
+    void adminUserDetailLoadsSummaryAndBoards() throws Exception {
+        assertWithin(get("/admin/users/{id}", dataset.userId("user1")).with(user("admin").roles("ADMIN")), status().isOk(),
+                5, TestDataset.BOARDS_PER_USER + 5, 4_000);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ohmyimage.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TextAnalyzerTest {
+
+    @Test
+    void turkishInflectionsReduceToTheStem() {
+        assertEquals("kedi", TextAnalyzer.stem("kediler"));
+        assertEquals("kedi", TextAnalyzer.stem("kedilerinde"));
+        assertEquals("kedi", TextAnalyzer.stem("kedisinde"));
+        assertEquals("kedi", TextAnalyzer.stem("kedinin"));
+        assertEquals("kedi", TextAnalyzer.stem("kediyi"));
+        assertEquals("kitap", TextAnalyzer.stem("kitaplar"));
+        assertEquals("kitap", TextAnalyzer.stem("kitapta"));
+        assertEquals("kitap", TextAnalyzer.stem("kitaptan"));
+        assertEquals("deniz", TextAnalyzer.stem("denizde"));
+        assertEquals("manzara", TextAnalyzer.stem("manzaraları"));
+        assertEquals("manzara", TextAnalyzer.stem("manzarası"));
+        assertEquals("cicek", TextAnalyzer.stem("Çiçekler"));
+        assertEquals("dag", TextAnalyzer.stem("dağlar"));
+    }
+
+    @Test
+    void englishInflectionsReduceToTheStem() {
+        assertEquals("paint", TextAnalyzer.stem("paintings"));
+        assertEquals("paint", TextAnalyzer.stem("painting"));
+        assertEquals("paint", TextAnalyzer.stem("PAINTING"));
+        assertEquals("paint", TextAnalyzer.stem("painted"));
+        assertEquals("paint", TextAnalyzer.stem("paints"));
+        assertEquals("puppy", TextAnalyzer.stem("puppies"));
+        assertEquals("garden", TextAnalyzer.stem("gardens"));
+    }
+
+    @Test
+    void wordsThatOnlyLookInflectedAreKept() {
+        assertEquals("pasta", TextAnalyzer.stem("pasta"));
+        assertEquals("paste", TextAnalyzer.stem("paste"));
+        assertEquals("golden", TextAnalyzer.stem("golden"));
+        assertEquals("white", TextAnalyzer.stem("white"));
+        assertEquals("tente", TextAnalyzer.stem("tente"));
+        assertEquals("ders", TextAnalyzer.stem("ders"));
+        assertEquals("tenis", TextAnalyzer.stem("tenis"));
+        assertEquals("red", TextAnalyzer.stem("red"));
+        assertNotEquals(TextAnalyzer.stem("pasta"), TextAnalyzer.stem("paste"));
+    }
+
+    @Test
+    void suffixesAreStrippedAtMostOncePerGroup() {
+        // "lar" + "lar" gibi tekrar eden ekler tek geçişte atılmaz
+        assertEquals("kalemlar", TextAnalyzer.stem("kalemlarlar"));
+    }
+
+    @Test
+    void analyzeFoldsDropsStopWordsAndStems() {
+        assertEquals(List.of("istanbul", "kedi", "bahce"), TextAnalyzer.analyze("İstanbul'da kediler ve bahçe"));
+        assertEquals(List.of("golden", "paint"), TextAnalyzer.analyze("The golden paintings"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.User;
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.RoleRepository;
+import com.ohmyimage.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Pin kaydı pano sayacını değiştirir; sadece o panonun önbellek kaydı yenilenmeli, diğer panolar önbellekte kalmalı.
+// İkinci seviye önbellek test profilinde kapalı olduğundan burada açılır.
+// Ayrı veritabanı: bu context'in şeması diğer testlerin veri setini silmesin
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:boardcache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "ohmyimage.jpa.second-level-cache=true"
+})
+@ActiveProfiles("test")
+class BoardCacheTest {
+
+    @Autowired private PinService pinService;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void boardCacheHitSurvivesAPinSave() {
+        User user = userRepository.save(User.builder()
+                .username("cacheowner")
+                .email("cacheowner@example.com")
+                .password("password")
+                .roles(Set.of(roleRepository.findByName("ROLE_USER").orElseThrow()))
+                .build());
+        List<Board> boards = boardRepository.saveAll(List.of(
+                Board.builder().name("pinlenen").owner(user).build(),
+                Board.builder().name("dokunulmayan").owner(user).build()));
+        Long pinned = boards.get(0).getId();
+        Long untouched = boards.get(1).getId();
+
+        entityManagerFactory.getCache().evictAll();
+        boardRepository.findById(pinned);
+        boardRepository.findById(untouched);
+        assertTrue(entityManagerFactory.getCache().contains(Board.class, untouched));
+
+        pinService.save(pin(boards.get(0)));
+
+        assertTrue(entityManagerFactory.getCache().contains(Board.class, untouched));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        boardRepository.findById(untouched);
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+
+        // Değişen pano da güncel sayıyla önbellekte
+        assertEquals(1, boardRepository.findById(pinned).orElseThrow().getPinCount());
+        assertEquals(1, boardRepository.findSummaryById(pinned).orElseThrow().pinCount());
+    }
+
+    private static Pin pin(Board board) {
+        return Pin.builder()
+                .title("Önbellek pini")
+                .createdAt(LocalDateTime.now())
+                .imageContentType("image/png")
+                .imageSha256("0".repeat(64))
+                .imageSize(1L)
+                .imageUpdatedAt(LocalDateTime.now())
+                .owner(board.getOwner())
+                .board(board)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.repository.ImageSweepCandidateRepository;
+import com.ohmyimage.storage.ImageInfo;
+import com.ohmyimage.storage.ImageStore;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Görsel süpürme: silme, aynı içeriği yükleyen ve henüz commit edilmemiş bir istekle yarışmamalı
+class ImageServiceTest extends QueryCountTest {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private PinService pinService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageSweepCandidateRepository sweepCandidateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sameContentUploadDuringDeleteKeepsTheImage() throws Exception {
+        byte[] png = png(11);
+        Board board = dataset.createUserWithBoards("sweeprace", 1).get(0);
+        Pin first = pinService.save(pin(board, store(png), "İlk pin"));
+        String key = first.getImageSha256();
+
+        CountDownLatch stored = new CountDownLatch(1);
+        CountDownLatch swept = new CountDownLatch(1);
+        ExecutorService uploader = Executors.newSingleThreadExecutor();
+        try {
+            // B: aynı içerik zaten saklı olduğundan put erken döner; pin, A silip süpürene kadar commit edilmez
+            Future<Pin> second = uploader.submit(() -> transactionTemplate.execute(status -> {
+                ImageInfo image = store(png);
+                stored.countDown();
+                awaitLatch(swept);
+                return pinService.save(pin(board, image, "İkinci pin"));
+            }));
+            assertTrue(stored.await(10, TimeUnit.SECONDS));
+
+            // A: içeriği kullanan son commit edilmiş pini siler, süpürme hemen çalışır
+            pinService.deleteById(first.getId());
+            assertEquals(0, imageService.sweepUnreferenced(LocalDateTime.now()));
+            swept.countDown();
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            uploader.shutdownNow();
+        }
+        assertTrue(imageStore.exists(key));
+
+        // Bekleme süresinden sonra da B'nin pini görseli kullandığı için silinmez, aday kaldırılır
+        imageService.sweepUnreferenced(LocalDateTime.now().plusDays(1));
+        assertTrue(imageStore.exists(key));
+        assertFalse(sweepCandidateRepository.existsById(key));
+    }
+
+    @Test
+    void releasedImageIsDeletedOnlyAfterTheGracePeriod() {
+        Board board = dataset.createUserWithBoards("sweeprelease", 1).get(0);
+        Pin pin = pinService.save(pin(board, store(png(12)), "Silinecek pin"));
+        String key = pin.getImageSha256();
+
+        pinService.deleteById(pin.getId());
+        imageService.sweepUnreferenced(LocalDateTime.now());
+        assertTrue(imageStore.exists(key));
+
+        imageService.sweepUnreferenced(LocalDateTime.now().plusDays(1));
+        assertFalse(imageStore.exists(key));
+        assertFalse(sweepCandidateRepository.existsById(key));
+    }
+
+    @Test
+    void uploadWhoseTransactionRollsBackIsSweptAfterTheGracePeriod() {
+        byte[] png = png(13);
+        String key = transactionTemplate.execute(status -> {
+            ImageInfo image = store(png);
+            status.setRollbackOnly();
+            return image.key();
+        });
+        assertTrue(imageStore.exists(key));
+
+        imageService.sweepUnreferenced(LocalDateTime.now().plusDays(1));
+        assertFalse(imageStore.exists(key));
+    }
+
+    private ImageInfo store(byte[] png) {
+        try {
+            return imageService.store(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Pin pin(Board board, ImageInfo image, String title) {
+        return Pin.builder()
+                .title(title)
+                .createdAt(LocalDateTime.now())
+                .imageContentType(image.contentType())
+                .imageSha256(image.key())
+                .imageSize(image.size())
+                .imageUpdatedAt(LocalDateTime.now())
+                .owner(board.getOwner())
+                .board(board)
+                .build();
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Küçük resim üretilmeyecek kadar küçük, tohuma göre farklı içerik
+    private static byte[] png(long seed) {
+        Random random = new Random(seed);
+        BufferedImage picture = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 32; x++) {
+                picture.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(picture, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ohmyimage.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.ohmyimage.model.OutboxMail;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Outbox gönderimini süreç içi bir SMTP sunucusuna (GreenMail) karşı dener; outbox tablosu yerine mock kullanılır
+class MailDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private GreenMail smtp;
+    private MailOutboxService outbox;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void startSmtp() {
+        smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtp.start();
+        outbox = mock(MailOutboxService.class);
+    }
+
+    @AfterEach
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.stopDispatcher();
+        }
+        smtp.stop();
+    }
+
+    @Test
+    void dueMailsAreDeliveredInBatchesAndMarkedSent() throws Exception {
+        dispatcher = dispatcher(smtp.getSmtp().getPort(), 2);
+        List<OutboxMail> batch = mails(5, 1);
+        when(outbox.claimDue(anyInt(), any())).thenReturn(batch);
+
+        assertEquals(5, dispatcher.dispatchOnce());
+
+        assertTrue(smtp.waitForIncomingEmail(5000, 5));
+        Set<String> recipients = new HashSet<>();
+        for (MimeMessage message : smtp.getReceivedMessages()) {
+            recipients.add(message.getAllRecipients()[0].toString());
+            assertEquals("OhMyImage Şifre Sıfırlama", message.getSubject());
+        }
+        assertEquals(Set.of("user1@example.com", "user2@example.com", "user3@example.com",
+                "user4@example.com", "user5@example.com"), recipients);
+
+        // İki gönderici: her biri kendi payını tek seferde işaretler
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        verify(outbox, times(2)).markSent(sent.capture());
+        Set<Long> sentIds = new HashSet<>();
+        sent.getAllValues().forEach(sentIds::addAll);
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), sentIds);
+        verify(outbox, never()).markFailed(any(), any(), any(), any());
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledWithBackoff() throws Exception {
+        dispatcher = dispatcher(closedPort(), 1);
+        OutboxMail mail = mails(1, 1).get(0);
+        when(outbox.claimDue(anyInt(), any())).thenReturn(List.of(mail));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchOnce();
+
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outbox).markFailed(eq(1L), eq(OutboxMail.Status.PENDING), anyString(), next.capture());
+        assertTrue(!next.getValue().isBefore(before.plusSeconds(30)), "first retry waits the initial backoff");
+        assertEquals(0, smtp.getReceivedMessages().length);
+    }
+
+    @Test
+    void mailIsGivenUpAfterMaxAttempts() throws Exception {
+        dispatcher = dispatcher(closedPort(), 1);
+        when(outbox.claimDue(anyInt(), any())).thenReturn(mails(1, MAX_ATTEMPTS));
+
+        dispatcher.dispatchOnce();
+
+        verify(outbox).markFailed(eq(1L), eq(OutboxMail.Status.FAILED), anyString(), any());
+    }
+
+    @Test
+    void backoffDoublesUpToTheLimit() {
+        dispatcher = dispatcher(smtp.getSmtp().getPort(), 1);
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+        assertEquals(Duration.ofHours(1), dispatcher.backoff(20));
+    }
+
+    private MailDispatcher dispatcher(int port, int concurrency) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        // Boot'un spring.mail.default-encoding varsayılanı; yoksa konu platform karakter setiyle kodlanır
+        sender.setDefaultEncoding("UTF-8");
+
+        MailDispatcher dispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailOutboxService", outbox);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", sender);
+        ReflectionTestUtils.setField(dispatcher, "from", "noreply@ohmyimage.test");
+        ReflectionTestUtils.setField(dispatcher, "concurrency", concurrency);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        // Zamanlanmış tur test sırasında çalışmasın; turlar elle tetiklenir
+        ReflectionTestUtils.setField(dispatcher, "pollInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofHours(1));
+        dispatcher.startDispatcher();
+        return dispatcher;
+    }
+
+    // claimDue'nun döndürdüğü gibi: deneme sayısı artırılmış mailler
+    private static List<OutboxMail> mails(int count, int attempts) {
+        List<OutboxMail> mails = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            mails.add(OutboxMail.builder()
+                    .id(id)
+                    .recipient("user" + id + "@example.com")
+                    .subject("OhMyImage Şifre Sıfırlama")
+                    .body("Şifrenizi sıfırlamak için tıklayın:\nhttp://localhost:8080/reset-password?token=" + id)
+                    .status(OutboxMail.Status.PENDING)
+                    .attempts(attempts)
+                    .nextAttemptAt(LocalDateTime.now().plusMinutes(5))
+                    .build());
+        }
+        return mails;
+    }
+
+    // Dinleyen olmayan bir port: bağlantı reddedilir
+    private static int closedPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.OutboxMail;
+import com.ohmyimage.repository.OutboxMailRepository;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Outbox sorguları gerçek JPA üzerinde (MailDispatcherTest outbox'ı taklit eder)
+class MailOutboxServiceTest extends QueryCountTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Test
+    void claimedMailIsLeasedUntilTheLeaseExpires() {
+        Long id = mailOutboxService.enqueue("lease@example.com", "Konu", "İçerik").getId();
+
+        assertTrue(claimedIds().contains(id));
+        OutboxMail claimed = outboxMailRepository.findById(id).orElseThrow();
+        assertEquals(1, claimed.getAttempts());
+        assertTrue(claimed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertFalse(claimedIds().contains(id));
+    }
+
+    @Test
+    void sentMailIsNotClaimedAgain() {
+        Long id = mailOutboxService.enqueue("sent@example.com", "Konu", "İçerik").getId();
+        mailOutboxService.markSent(List.of(id));
+
+        OutboxMail sent = outboxMailRepository.findById(id).orElseThrow();
+        assertEquals(OutboxMail.Status.SENT, sent.getStatus());
+        assertNotNull(sent.getSentAt());
+        assertFalse(claimedIds().contains(id));
+    }
+
+    @Test
+    void failedMailIsRetriedOnlyWhilePending() {
+        Long retried = mailOutboxService.enqueue("retry@example.com", "Konu", "İçerik").getId();
+        Long abandoned = mailOutboxService.enqueue("failed@example.com", "Konu", "İçerik").getId();
+        claimedIds();
+        LocalDateTime past = LocalDateTime.now().minusSeconds(1);
+        mailOutboxService.markFailed(retried, OutboxMail.Status.PENDING, "Geçici hata", past);
+        mailOutboxService.markFailed(abandoned, OutboxMail.Status.FAILED, "Kalıcı hata", past);
+
+        List<Long> claimed = claimedIds();
+        assertTrue(claimed.contains(retried));
+        assertFalse(claimed.contains(abandoned));
+        assertEquals("Kalıcı hata", outboxMailRepository.findById(abandoned).orElseThrow().getLastError());
+    }
+
+    private List<Long> claimedIds() {
+        return mailOutboxService.claimDue(100, LEASE).stream().map(OutboxMail::getId).toList();
+    }
+}
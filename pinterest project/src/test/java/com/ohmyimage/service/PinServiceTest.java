@@ -0,0 +1,40 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PinServiceTest extends QueryCountTest {
+
+    private static final int IMPORTED_PINS = 100;
+
+    @Autowired
+    private PinService pinService;
+
+    @Test
+    void feedPageIsASingleQueryWithoutCount() {
+        assertWithin("findFeedPage", () -> pinService.findFeedPage(null),
+                1, PinService.FEED_PAGE_SIZE + 1, 8_000);
+    }
+
+    @Test
+    void saveAllBatchesInsertsAndCounterUpdates() {
+        List<Board> boards = dataset.createUserWithBoards("importer", 2);
+        List<Pin> pins = new ArrayList<>();
+        for (int i = 0; i < IMPORTED_PINS; i++) {
+            pins.add(dataset.newPin(boards.get(i % boards.size()), "İçe aktarılan " + i));
+        }
+
+        // Sıra numarası blokları + iki insert batch'i + pano başına kilitli okuma ve sayaç güncellemesi
+        assertWithin("saveAll(" + IMPORTED_PINS + " pins)", () -> pinService.saveAll(pins), 10, 5, 200);
+
+        assertEquals(IMPORTED_PINS, pins.stream().filter(pin -> pin.getId() != null).count());
+    }
+}
@@ -0,0 +1,68 @@
+package com.ohmyimage.service;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Comment;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.repository.CommentRepository;
+import com.ohmyimage.support.JdbcCounter;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class UserServiceTest extends QueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PinService pinService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void batchDeleteCostIsIndependentOfUserCount() {
+        List<Long> few = createUsersWithContent("fewdelete", 2);
+        List<Long> many = createUsersWithContent("manydelete", 10);
+
+        JdbcCounter.Usage small = assertWithin("deleteUsers(2)", () -> userService.deleteUsers(few), 25, 10, 1_000);
+        JdbcCounter.Usage large = assertWithin("deleteUsers(10)", () -> userService.deleteUsers(many), 25, 30, 2_000);
+
+        // Kullanıcı başına sorgu yok: aynı sayıda toplu komut
+        assertEquals(small.statements(), large.statements());
+    }
+
+    @Test
+    void currentUserIsServedFromCacheOnRepeatedRequests() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated("user2", null, List.of());
+        assertNotNull(userService.findCurrentUser(authentication));
+
+        assertWithin("findCurrentUser (cached)", () -> userService.findCurrentUser(authentication), 0, 0, 0);
+    }
+
+    // Her biri bir pano, pin ve yorum sahibi kullanıcılar
+    private List<Long> createUsersWithContent(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Board board = dataset.createUserWithBoards(prefix + i, 1).get(0);
+            Pin pin = pinService.save(dataset.newPin(board, prefix + " pin " + i));
+            commentRepository.save(Comment.builder()
+                    .text("Yorum")
+                    .createdAt(LocalDateTime.now())
+                    .user(board.getOwner())
+                    .pin(pin)
+                    .build());
+            ids.add(board.getOwner().getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ohmyimage.storage;
+
+import com.ohmyimage.model.PinImage;
+import com.ohmyimage.repository.PinImageRepository;
+import com.ohmyimage.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Diskte olmayan görsel veritabanından parça parça okunup diske akıtılır ve diskteki dosyadan sunulur.
+// Test şemasında pin_image.data kısa olduğu için parça boyutu da küçültülür.
+class FileSystemImageStoreTest extends QueryCountTest {
+
+    private static final int LEGACY_SIZE = 200;
+    private static final int CHUNK_SIZE = 64;
+
+    @Autowired
+    private PinImageRepository pinImageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void legacyImageIsStreamedFromTheDatabaseToDisk() throws IOException {
+        FileSystemImageStore imageStore = new FileSystemImageStore(tempDir,
+                new DatabaseImageStore(pinImageRepository, jdbcTemplate, CHUNK_SIZE));
+        byte[] data = new byte[LEGACY_SIZE];
+        new Random(5).nextBytes(data);
+        String key = "legacyimage0001";
+        pinImageRepository.save(PinImage.builder()
+                .imageKey(key).contentType("image/png").size(data.length).data(data).createdAt(LocalDateTime.now())
+                .build());
+        assertFalse(imageStore.exists(key));
+
+        byte[][] read = new byte[1][];
+        // Boyut sorgusu + dört parça; içerik bir kez okunur
+        assertWithin("open(" + key + ") from fallback", () -> read[0] = readAll(imageStore, key), 5, 5, LEGACY_SIZE + 100);
+
+        assertArrayEquals(data, read[0]);
+        assertTrue(imageStore.exists(key));
+        assertWithin("open(" + key + ") from disk", () -> readAll(imageStore, key), 0, 0, 0);
+    }
+
+    private static byte[] readAll(ImageStore imageStore, String key) {
+        try (InputStream in = imageStore.open(key).orElseThrow().openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ohmyimage.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Büyük yüklemelerin heap'e alınmadan diske akıtıldığını ölçer:
+// aynı anda birkaç büyük yükleme yapılırken heap tepe değeri ve her yükleme thread'inin ayırdığı bellek izlenir.
+class StagedUploadHeapTest {
+
+    private static final int CONCURRENT_UPLOADS = 4;
+    private static final long UPLOAD_SIZE = 64L * 1024 * 1024;
+
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void concurrentLargeUploadsAreStreamedWithoutBufferingOnHeap() throws Exception {
+        FileSystemImageStore store = new FileSystemImageStore(tempDir.resolve("images"), null);
+        Path staging = Files.createDirectories(tempDir.resolve("staging"));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 2, TimeUnit.MILLISECONDS);
+
+        ExecutorService uploads = Executors.newFixedThreadPool(CONCURRENT_UPLOADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+                long seed = i + 1;
+                results.add(uploads.submit(() -> {
+                    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                    try (StagedUpload upload = StagedUpload.stage(new SyntheticImageStream(UPLOAD_SIZE, seed), staging, UPLOAD_SIZE)) {
+                        store.put(upload.sha256(), "image/png", upload.file());
+                        synchronized (keys) {
+                            keys.add(upload.sha256());
+                        }
+                        assertEquals(UPLOAD_SIZE, upload.size());
+                        assertTrue(startsWithPngMagic(upload.header()));
+                    }
+                    return new long[]{threads.getCurrentThreadAllocatedBytes() - allocatedBefore};
+                }));
+            }
+            for (Future<long[]> result : results) {
+                long allocated = result.get(5, TimeUnit.MINUTES)[0];
+                // Tamponlu bir yükleme en az UPLOAD_SIZE kadar ayırırdı
+                assertTrue(allocated < UPLOAD_SIZE / 16,
+                        "upload thread allocated " + allocated + " bytes for a " + UPLOAD_SIZE + " byte upload");
+            }
+        } finally {
+            uploads.shutdownNow();
+            sampler.shutdownNow();
+        }
+
+        long peakGrowth = peak.get() - baseline;
+        assertTrue(peakGrowth < CONCURRENT_UPLOADS * UPLOAD_SIZE / 2,
+                "peak heap grew by " + peakGrowth / (1024 * 1024) + " MB during " + CONCURRENT_UPLOADS
+                        + " concurrent uploads of " + UPLOAD_SIZE / (1024 * 1024) + " MB");
+
+        assertEquals(CONCURRENT_UPLOADS, new HashSet<>(keys).size());
+        for (String key : keys) {
+            assertEquals(OptionalLong.of(UPLOAD_SIZE), store.sizeOf(key));
+        }
+        try (var staged = Files.list(staging)) {
+            assertEquals(0, staged.count(), "staging files must be removed after upload");
+        }
+    }
+
+    @Test
+    void oversizedUploadIsRejectedAndStagingFileRemoved() throws Exception {
+        Path staging = Files.createDirectories(tempDir.resolve("staging"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StagedUpload.stage(new SyntheticImageStream(2 * 1024 * 1024, 1), staging, 1024 * 1024));
+
+        try (var staged = Files.list(staging)) {
+            assertEquals(0, staged.count());
+        }
+    }
+
+    private static boolean startsWithPngMagic(byte[] header) {
+        for (int i = 0; i < PNG_MAGIC.length; i++) {
+            if (header[i] != PNG_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // PNG imzasıyla başlayan, belleğe alınmadan üretilen sözde rastgele içerik (istek gövdesi yerine)
+    private static final class SyntheticImageStream extends InputStream {
+        private final long length;
+        private long position;
+        private long state;
+
+        SyntheticImageStream(long length, long seed) {
+            this.length = length;
+            this.state = seed * 0x9E3779B97F4A7C15L;
+        }
+
+        @Override
+        public int read() {
+            if (position >= length) {
+                return -1;
+            }
+            return nextByte() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) {
+            if (position >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(count, length - position);
+            for (int i = 0; i < n; i++) {
+                buffer[offset + i] = nextByte();
+            }
+            return n;
+        }
+
+        private byte nextByte() {
+            long index = position++;
+            if (index < PNG_MAGIC.length) {
+                return PNG_MAGIC[(int) index];
+            }
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            return (byte) state;
+        }
+    }
+}
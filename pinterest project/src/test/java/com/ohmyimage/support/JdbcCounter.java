@@ -0,0 +1,126 @@
+package com.ohmyimage.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+// DataSource'u saran basit JDBC vekili: çalıştırılan komutları, okunan satırları ve okunan
+// metin/ikili sütunların boyutunu sayar. Hibernate, JdbcTemplate ve arama thread'leri dahil
+// bu DataSource'tan geçen her şey sayılır.
+public final class JdbcCounter {
+
+    // Bir ölçümün sonucu
+    public record Usage(long statements, long rows, long bytes) {
+
+        Usage minus(Usage before) {
+            return new Usage(statements - before.statements, rows - before.rows, bytes - before.bytes);
+        }
+    }
+
+    private static final AtomicLong statements = new AtomicLong();
+    private static final AtomicLong rows = new AtomicLong();
+    private static final AtomicLong bytes = new AtomicLong();
+
+    private JdbcCounter() {
+    }
+
+    public static Usage snapshot() {
+        return new Usage(statements.get(), rows.get(), bytes.get());
+    }
+
+    public static Usage since(Usage before) {
+        return snapshot().minus(before);
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            // executeBatch tek gidiş-dönüş sayılır; addBatch sayılmaz
+            if (method.getName().startsWith("execute")) {
+                statements.incrementAndGet();
+            }
+            Object result = invoke(target, method, args);
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows.incrementAndGet();
+            } else if (name.startsWith("get")) {
+                bytes.addAndGet(sizeOf(result));
+            }
+            return result;
+        });
+    }
+
+    // Değişken uzunluklu sütunların yaklaşık boyutu; sayı, tarih gibi sabit boyutlular ve akışlar sayılmaz
+    private static long sizeOf(Object value) throws Exception {
+        if (value instanceof String string) {
+            return string.length();
+        }
+        if (value instanceof byte[] array) {
+            return array.length;
+        }
+        if (value instanceof Blob blob) {
+            return blob.length();
+        }
+        if (value instanceof Clob clob) {
+            return clob.length();
+        }
+        return 0;
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(JdbcCounter.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
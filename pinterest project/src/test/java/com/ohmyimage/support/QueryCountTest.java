@@ -0,0 +1,74 @@
+package com.ohmyimage.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Uç noktaları gömülü veritabanına karşı çalıştırıp SQL komutu, okunan satır ve okunan bayt sayısına
+// üst sınır koyan testlerin temeli. Bir sayfa N+1 sorguya dönerse (ör. her pin için ayrı sorgu) test kırılır.
+// Sınırlar soğuk önbellek varsayımıyla konur; önbellek ısındıkça gerçek değerler daha düşük olur.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountTestConfig.class)
+public abstract class QueryCountTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountTest.class);
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected TestDataset dataset;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @BeforeEach
+    void seedDataset() {
+        dataset.ensureSeeded();
+    }
+
+    // İsteği çalıştırır, beklenen sonucu ve veritabanı kullanımının sınırlar içinde kaldığını doğrular
+    protected JdbcCounter.Usage assertWithin(RequestBuilder request, ResultMatcher expected,
+                                             long maxStatements, long maxRows, long maxBytes) throws Exception {
+        JdbcCounter.Usage before = JdbcCounter.snapshot();
+        mockMvc.perform(request).andExpect(expected);
+        JdbcCounter.Usage usage = JdbcCounter.since(before);
+        MockHttpServletRequest built = request.buildRequest(webApplicationContext.getServletContext());
+        String label = built.getMethod() + " " + built.getRequestURI()
+                + (built.getQueryString() != null ? "?" + built.getQueryString() : "");
+        return assertUsage(label, usage, maxStatements, maxRows, maxBytes);
+    }
+
+    protected JdbcCounter.Usage assertWithin(String label, Runnable action,
+                                             long maxStatements, long maxRows, long maxBytes) {
+        JdbcCounter.Usage before = JdbcCounter.snapshot();
+        action.run();
+        return assertUsage(label, JdbcCounter.since(before), maxStatements, maxRows, maxBytes);
+    }
+
+    private static JdbcCounter.Usage assertUsage(String label, JdbcCounter.Usage usage,
+                                                 long maxStatements, long maxRows, long maxBytes) {
+        logger.debug("{}: {} statements, {} rows, {} bytes", label, usage.statements(), usage.rows(), usage.bytes());
+        assertTrue(usage.statements() <= maxStatements,
+                label + " issued " + usage.statements() + " SQL statements (limit " + maxStatements + ")");
+        assertTrue(usage.rows() <= maxRows,
+                label + " fetched " + usage.rows() + " rows (limit " + maxRows + ")");
+        assertTrue(usage.bytes() <= maxBytes,
+                label + " loaded " + usage.bytes() + " bytes (limit " + maxBytes + ")");
+        return usage;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ohmyimage.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+
+// Uygulamanın DataSource'unu JdbcCounter ile sarar ve test veri setini ekler
+@TestConfiguration
+@Import(TestDataset.class)
+public class QueryCountTestConfig {
+
+    @Bean
+    static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? JdbcCounter.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
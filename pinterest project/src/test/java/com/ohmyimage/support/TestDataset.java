@@ -0,0 +1,252 @@
+package com.ohmyimage.support;
+
+import com.ohmyimage.model.Board;
+import com.ohmyimage.model.Comment;
+import com.ohmyimage.model.Pin;
+import com.ohmyimage.model.Role;
+import com.ohmyimage.model.User;
+import com.ohmyimage.repository.BoardRepository;
+import com.ohmyimage.repository.CommentRepository;
+import com.ohmyimage.repository.PinRepository;
+import com.ohmyimage.repository.RoleRepository;
+import com.ohmyimage.repository.UserRepository;
+import com.ohmyimage.service.CounterService;
+import com.ohmyimage.service.ImageService;
+import com.ohmyimage.service.SearchService;
+import com.ohmyimage.storage.ImageStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Sorgu sayısı testleri için gerçekçi bir veri seti: birkaç kullanıcı, panolar, dağılımı çarpık pinler
+// (bazı panolarda çok pin) ve yorumlar (bir pinde sayfa boyutundan çok yorum, çoğunda birkaç tane).
+// Uygulama context'i başına bir kez kurulur.
+@TestComponent
+public class TestDataset {
+
+    public static final int USERS = 20;
+    public static final int BOARDS_PER_USER = 3;
+    public static final int PINS = 300;
+    public static final int POPULAR_PIN_COMMENTS = 120;
+    public static final String PASSWORD = "password";
+    private static final int IMAGE_SIDE = 256;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private BoardRepository boardRepository;
+    @Autowired private PinRepository pinRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private CounterService counterService;
+    @Autowired private SearchService searchService;
+    @Autowired private ImageService imageService;
+    @Autowired private ImageStore imageStore;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private boolean seeded;
+    private final Map<String, Long> userIds = new HashMap<>();
+    private Long popularPinId;
+    private String popularPinOwner;
+    private Long largestBoardId;
+    private String largestBoardOwner;
+    private byte[] image;
+    private String passwordHash;
+
+    public synchronized void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        image = samplePng();
+        storeImage();
+        transactionTemplate.executeWithoutResult(status -> seed());
+        counterService.reconcile();
+        searchService.rebuild();
+        seeded = true;
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        Role userRole = roleRepository.findByName("ROLE_USER").orElseThrow();
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        String imageKey = imageService.sha256Hex(image);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password(passwordHash)
+                    .roles(Set.of(userRole))
+                    .build());
+        }
+        userRepository.saveAll(users);
+        users.forEach(user -> userIds.put(user.getUsername(), user.getId()));
+
+        List<Board> boards = new ArrayList<>();
+        for (User user : users) {
+            for (int b = 1; b <= BOARDS_PER_USER; b++) {
+                boards.add(Board.builder().name(user.getUsername() + " board " + b).owner(user).build());
+            }
+        }
+        boardRepository.saveAll(boards);
+
+        // Pinlerin yarıdan fazlası ilk birkaç panoda toplanır
+        List<Pin> pins = new ArrayList<>();
+        int[] pinsPerBoard = new int[boards.size()];
+        for (int i = 0; i < PINS; i++) {
+            int boardIndex = (int) (boards.size() * Math.pow(random.nextDouble(), 3));
+            Board board = boards.get(boardIndex);
+            pinsPerBoard[boardIndex]++;
+            pins.add(Pin.builder()
+                    .title("Pin " + i + " " + (i % 2 == 0 ? "manzara" : "tarif"))
+                    .description("Açıklama " + i)
+                    .createdAt(now.minusMinutes(i))
+                    .imageContentType("image/png")
+                    .imageSha256(imageKey)
+                    .imageSize((long) image.length)
+                    .imageUpdatedAt(now.minusMinutes(i))
+                    .owner(board.getOwner())
+                    .board(board)
+                    .build());
+        }
+        pinRepository.saveAll(pins);
+
+        int largest = 0;
+        for (int i = 1; i < pinsPerBoard.length; i++) {
+            if (pinsPerBoard[i] > pinsPerBoard[largest]) {
+                largest = i;
+            }
+        }
+        largestBoardId = boards.get(largest).getId();
+        largestBoardOwner = boards.get(largest).getOwner().getUsername();
+
+        // Çoğu pinde birkaç yorum, ilk pinde birkaç sayfa yorum
+        List<Comment> comments = new ArrayList<>();
+        Pin popular = pins.get(0);
+        for (int i = 0; i < POPULAR_PIN_COMMENTS; i++) {
+            comments.add(comment(popular, users.get(i % USERS), now.minusSeconds(i), i));
+        }
+        for (int p = 1; p < PINS; p++) {
+            int count = (int) (6 * Math.pow(random.nextDouble(), 4));
+            for (int c = 0; c < count; c++) {
+                comments.add(comment(pins.get(p), users.get(random.nextInt(USERS)), now.minusSeconds(c), c));
+            }
+        }
+        commentRepository.saveAll(comments);
+
+        popularPinId = popular.getId();
+        popularPinOwner = popular.getOwner().getUsername();
+    }
+
+    // Veri setini bozmadan yazma testlerinde kullanılacak yeni bir kullanıcı ve panoları
+    public List<Board> createUserWithBoards(String username, int boardCount) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.save(User.builder()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password(passwordHash)
+                    .roles(Set.of(roleRepository.findByName("ROLE_USER").orElseThrow()))
+                    .build());
+            List<Board> boards = new ArrayList<>();
+            for (int b = 1; b <= boardCount; b++) {
+                boards.add(Board.builder().name(username + " board " + b).owner(user).build());
+            }
+            return boardRepository.saveAll(boards);
+        });
+    }
+
+    // Dataset görseliyle yeni (kaydedilmemiş) bir pin
+    public Pin newPin(Board board, String title) {
+        return Pin.builder()
+                .title(title)
+                .description(title)
+                .createdAt(LocalDateTime.now())
+                .imageContentType("image/png")
+                .imageSha256(imageService.sha256Hex(image))
+                .imageSize((long) image.length)
+                .imageUpdatedAt(LocalDateTime.now())
+                .owner(board.getOwner())
+                .board(board)
+                .build();
+    }
+
+    private static Comment comment(Pin pin, User user, LocalDateTime createdAt, int index) {
+        return Comment.builder().text("Yorum " + index).createdAt(createdAt).user(user).pin(pin).build();
+    }
+
+    private void storeImage() {
+        try {
+            Path file = Files.createTempFile("dataset", ".png");
+            try {
+                Files.write(file, image);
+                imageStore.put(imageService.sha256Hex(image), "image/png", file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Sıkışmayan (gürültü) içerik: görsel JDBC'den okunsaydı bayt sayısında açıkça görünürdü
+    private static byte[] samplePng() {
+        Random random = new Random(7);
+        BufferedImage picture = new BufferedImage(IMAGE_SIDE, IMAGE_SIDE, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < IMAGE_SIDE; y++) {
+            for (int x = 0; x < IMAGE_SIDE; x++) {
+                picture.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(picture, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Kimlikler kurulum sırasında tutulur; ölçüm sırasında sorgu gerekmez
+    public Long userId(String username) {
+        return userIds.get(username);
+    }
+
+    // Yorumları birkaç sayfa süren pin
+    public Long popularPinId() {
+        return popularPinId;
+    }
+
+    public String popularPinOwner() {
+        return popularPinOwner;
+    }
+
+    // En çok pini olan pano
+    public Long largestBoardId() {
+        return largestBoardId;
+    }
+
+    public String largestBoardOwner() {
+        return largestBoardOwner;
+    }
+
+    public int imageSize() {
+        return image.length;
+    }
+}